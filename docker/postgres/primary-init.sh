@@ -0,0 +1,5 @@
+#!/bin/bash
+# Run by the postgres image when it first initialises the primary's data
+# directory: lets streaming replicas connect with the database user's password.
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,20 @@
+#!/bin/bash
+# Hot standby of $PRIMARY_HOST. On first start the data directory is cloned with
+# pg_basebackup -R, which also writes standby.signal and primary_conninfo.
+set -e
+PGDATA=${PGDATA:-/var/lib/postgresql/data}
+export PGPASSWORD="$REPLICATION_PASSWORD"
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+  mkdir -p "$PGDATA"
+  chown postgres:postgres "$PGDATA"
+  chmod 700 "$PGDATA"
+  until gosu postgres pg_basebackup -h "$PRIMARY_HOST" -p "${PRIMARY_PORT:-5432}" -U "$REPLICATION_USER" \
+      -D "$PGDATA" -X stream -R; do
+    echo "Waiting for primary $PRIMARY_HOST"
+    rm -rf "${PGDATA:?}"/*
+    sleep 1
+  done
+fi
+
+exec gosu postgres postgres -D "$PGDATA" -c hot_standby=on
@@ -0,0 +1,46 @@
+package com.tanmoy.vpp.benchmark;
+
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.util.UuidV7Generator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building a {@link Battery} from request values, and of its parts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BatteryFactoryBenchmark {
+
+    @Param({"6000", "0820", "2147483647"})
+    public String postcode;
+
+    @Benchmark
+    public Battery batteryOf() {
+        return Battery.of("Battery", postcode, 1000);
+    }
+
+    @Benchmark
+    public boolean postcodePatternMatch() {
+        return postcode.matches("^\\d{4,10}$");
+    }
+
+    @Benchmark
+    public int postcodeParse() {
+        return Integer.parseInt(postcode);
+    }
+
+    @Benchmark
+    public UUID uuidV7() {
+        return UuidV7Generator.generate();
+    }
+}
@@ -0,0 +1,86 @@
+package com.tanmoy.vpp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tanmoy.vpp.dto.request.BatteryListRequest;
+import com.tanmoy.vpp.dto.request.BatteryRequestDto;
+import com.tanmoy.vpp.ingest.BatteryJsonStreamReader;
+import com.tanmoy.vpp.ingest.BatteryRowValidator;
+import com.tanmoy.vpp.model.Battery;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Request binding for {@code POST /api/batteries}: full Jackson binding plus
+ * Bean Validation and entity conversion, as the controller does it, against
+ * the element-by-element streaming reader used by the JSON import.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BatteryListRequestBindingBenchmark {
+
+    @Param({"100", "10000"})
+    public int batteries;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Validator validator;
+    private BatteryJsonStreamReader streamReader;
+    private BatteryRowValidator rowValidator;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        streamReader = new BatteryJsonStreamReader(objectMapper);
+        rowValidator = new BatteryRowValidator(validator);
+
+        List<BatteryRequestDto> dtos = new ArrayList<>(batteries);
+        for (int i = 0; i < batteries; i++) {
+            BatteryRequestDto dto = new BatteryRequestDto();
+            dto.setName("Battery-" + i);
+            dto.setPostcode(String.valueOf(1000 + i % 9000));
+            dto.setCapacity(1000 + i);
+            dtos.add(dto);
+        }
+        BatteryListRequest request = new BatteryListRequest();
+        request.setBatteries(dtos);
+        payload = objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public List<Battery> bindValidateAndConvert() throws IOException {
+        BatteryListRequest request = objectMapper.readValue(payload, BatteryListRequest.class);
+        Set<ConstraintViolation<BatteryListRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("Unexpected violations: " + violations);
+        }
+        return request.getBatteries().stream()
+                .map(req -> Battery.of(req.getName(), req.getPostcode(), req.getCapacity()))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public long streamValidateAndConvert(Blackhole blackhole) {
+        return streamReader.forEach(new ByteArrayInputStream(payload),
+                (dto, line) -> blackhole.consume(rowValidator.toBattery(dto, line)));
+    }
+}
@@ -0,0 +1,86 @@
+package com.tanmoy.vpp.benchmark;
+
+import com.tanmoy.vpp.logging.RequestLogSamplingFilter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caller-side latency of the START/COMPLETE lines a search request logs, under
+ * the default synchronous configuration and the production async one.
+ *
+ * <p>Both configurations write their rolling file to a temporary directory;
+ * console output is discarded so JMH's own output stays readable. With the
+ * prod config and a 1% sample rate most requests only pay for the filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(8)
+public class RequestLoggingBenchmark {
+
+    @Param({"log4j2.xml", "log4j2-prod.xml"})
+    public String config;
+
+    @Param({"1.0", "0.01"})
+    public double sampleRate;
+
+    private LoggerContext context;
+    private Logger logger;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        System.setProperty("vpp.log.dir", Files.createTempDirectory("vpp-log-bench").toString());
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        context = Configurator.initialize("bench", "classpath:" + config);
+        logger = LogManager.getLogger("com.tanmoy.vpp.controller.BatteryController");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Configurator.shutdown(context);
+        System.setOut(originalOut);
+    }
+
+    @State(Scope.Thread)
+    public static class Request {
+        int startPostcode = 6000;
+        int endPostcode = 6100;
+    }
+
+    @Benchmark
+    public void searchRequestLogging(Request request) {
+        boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        ThreadContext.put(RequestLogSamplingFilter.SAMPLED_KEY, sampled ? "true" : "false");
+        try {
+            logger.info("Process search batteries request: " +
+                    "StartPostcode={}, EndPostcode={}: START", request.startPostcode, request.endPostcode);
+            logger.info("Process search batteries request: " +
+                    "StartPostcode={}, EndPostcode={}: COMPLETE", request.startPostcode, request.endPostcode);
+        } finally {
+            ThreadContext.remove(RequestLogSamplingFilter.SAMPLED_KEY);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.tanmoy.vpp.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the search response for growing name lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchResponseSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int names;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BatterySearchResponseDto response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> batteryNames = new ArrayList<>(names);
+        for (int i = 0; i < names; i++) {
+            batteryNames.add("Battery-" + i);
+        }
+        response = new BatterySearchResponseDto(batteryNames, 1_000L * names, 1000.0);
+    }
+
+    @Benchmark
+    public byte[] serializeSearchResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,56 @@
+package com.tanmoy.vpp.loadtest;
+
+import com.tanmoy.vpp.BasePostgresTest;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Boots the full application on a random port against a Flyway-migrated
+ * Testcontainers PostgreSQL seeded with {@code loadtest.seedRows} batteries.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "vpp.search.cache.enabled=true",
+        "logging.level.com.tanmoy.vpp=warn"
+})
+abstract class AbstractLoadTest extends BasePostgresTest {
+
+    protected static final Logger logger = LogManager.getLogger(AbstractLoadTest.class);
+
+    protected static final LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private boolean seeded;
+
+    protected WorkloadRunner runner() {
+        if (!seeded) {
+            logger.warn("Load test settings: {}", settings);
+            long started = System.nanoTime();
+            SeedData.seed(jdbcTemplate, settings.getSeedRows());
+            logger.warn("Seeded {} batteries in {} ms", settings.getSeedRows(),
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+            seeded = true;
+        }
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        return new WorkloadRunner(httpClient, URI.create("http://localhost:" + port), settings);
+    }
+}
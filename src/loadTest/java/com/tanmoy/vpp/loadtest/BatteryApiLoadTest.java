@@ -0,0 +1,35 @@
+package com.tanmoy.vpp.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives a mixed search/insert workload through the real HTTP stack.
+ * Throughput and p50/p99/p999 latencies are logged, and full HdrHistogram
+ * distributions are written to {@code build/reports/load-test}.
+ */
+class BatteryApiLoadTest extends AbstractLoadTest {
+
+    @Test
+    void mixedReadWriteWorkload() throws Exception {
+        WorkloadRunner runner = runner();
+
+        ExecutorService clients = Executors.newFixedThreadPool(settings.getClients());
+        try {
+            WorkloadResult result = runner.run(clients, settings.getClients(), settings.getWriteRatio());
+
+            logger.warn(result.summary("mixed"));
+            result.writeReports(settings.getReportDir(), "mixed");
+
+            assertThat(result.getReads().getCount()).isPositive();
+            assertThat(result.getReads().getErrors()).isZero();
+            assertThat(result.getWrites().getErrors()).isZero();
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.tanmoy.vpp.loadtest;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Load generator threads. Thousands of blocking clients are cheap on virtual
+ * threads, so they are used when the JVM has them (Java 21+); the lookup is
+ * reflective because the default toolchain is still Java 17.
+ */
+final class ClientExecutors {
+
+    private ClientExecutors() {}
+
+    static ExecutorService forClients(int clients) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(clients);
+        }
+    }
+}
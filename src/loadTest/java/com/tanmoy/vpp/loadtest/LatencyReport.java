@@ -0,0 +1,75 @@
+package com.tanmoy.vpp.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Latency histogram for one operation type, recorded in microseconds.
+ * Each client thread records into its own report; reports are merged at the end.
+ */
+public final class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = Duration.ofMinutes(1).toNanos() / 1000;
+
+    private final String operation;
+    private final Histogram histogram = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private long errors;
+
+    public LatencyReport(String operation) {
+        this.operation = operation;
+    }
+
+    public void record(long startNanos, long endNanos) {
+        long micros = Math.max(1, (endNanos - startNanos) / 1000);
+        histogram.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+    }
+
+    public void recordError() {
+        errors++;
+    }
+
+    public void add(LatencyReport other) {
+        histogram.add(other.histogram);
+        errors += other.errors;
+    }
+
+    public long getCount() {
+        return histogram.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public String summary(Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return String.format(Locale.ROOT,
+                "%-8s ops=%d errors=%d throughput=%.1f/s p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms",
+                operation,
+                histogram.getTotalCount(),
+                errors,
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50.0) / 1000.0,
+                histogram.getValueAtPercentile(99.0) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    /**
+     * Writes the full percentile distribution in HdrHistogram's {@code .hgrm}
+     * format (values in milliseconds), which the HdrHistogram plotter can compare.
+     */
+    public void writePercentileDistribution(Path dir, String scenario) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve(scenario + "-" + operation + ".hgrm");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.tanmoy.vpp.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Load test knobs, read from {@code loadtest.*} system properties
+ * (passed through by {@code ./gradlew loadTest -Ploadtest.<name>=<value>}).
+ */
+public final class LoadTestSettings {
+
+    private final long seedRows;
+    private final int clients;
+    private final int concurrentClients;
+    private final Duration warmup;
+    private final Duration duration;
+    private final double writeRatio;
+    private final int maxRangeWidth;
+    private final Path reportDir;
+
+    private LoadTestSettings(long seedRows, int clients, int concurrentClients, Duration warmup, Duration duration,
+                             double writeRatio, int maxRangeWidth, Path reportDir) {
+        this.seedRows = seedRows;
+        this.clients = clients;
+        this.concurrentClients = concurrentClients;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.writeRatio = writeRatio;
+        this.maxRangeWidth = maxRangeWidth;
+        this.reportDir = reportDir;
+    }
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Long.getLong("loadtest.seedRows", 1_000_000L),
+                Integer.getInteger("loadtest.clients", 32),
+                Integer.getInteger("loadtest.concurrentClients", 10_000),
+                Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10L)),
+                Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 60L)),
+                Double.parseDouble(System.getProperty("loadtest.writeRatio", "0.01")),
+                Integer.getInteger("loadtest.maxRangeWidth", 100),
+                Path.of(System.getProperty("loadtest.reportDir", "build/reports/load-test")));
+    }
+
+    public long getSeedRows() {
+        return seedRows;
+    }
+
+    public int getClients() {
+        return clients;
+    }
+
+    public int getConcurrentClients() {
+        return concurrentClients;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public double getWriteRatio() {
+        return writeRatio;
+    }
+
+    public int getMaxRangeWidth() {
+        return maxRangeWidth;
+    }
+
+    public Path getReportDir() {
+        return reportDir;
+    }
+
+    @Override
+    public String toString() {
+        return "seedRows=" + seedRows + ", clients=" + clients + ", concurrentClients=" + concurrentClients + ", warmup=" + warmup
+                + ", duration=" + duration + ", writeRatio=" + writeRatio + ", maxRangeWidth=" + maxRangeWidth;
+    }
+}
@@ -0,0 +1,12 @@
+package com.tanmoy.vpp.loadtest;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadSearchLoadTest extends SearchConcurrencyLoadTest {
+
+    @Override
+    protected String scenario() {
+        return "search-platform-threads";
+    }
+}
@@ -0,0 +1,38 @@
+package com.tanmoy.vpp.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Search-only workload with {@code loadtest.concurrentClients} (10k by default)
+ * simultaneous clients. Subclasses run it with Tomcat on platform threads and on
+ * virtual threads so the two reports can be compared side by side. Both run
+ * with the {@code virtual-threads} profile's pool and Tomcat sizing; only
+ * {@code spring.threads.virtual.enabled} differs.
+ */
+@ActiveProfiles("virtual-threads")
+abstract class SearchConcurrencyLoadTest extends AbstractLoadTest {
+
+    protected abstract String scenario();
+
+    @Test
+    void concurrentSearchWorkload() throws Exception {
+        WorkloadRunner runner = runner();
+
+        ExecutorService clients = ClientExecutors.forClients(settings.getConcurrentClients());
+        try {
+            WorkloadResult result = runner.run(clients, settings.getConcurrentClients(), 0.0);
+
+            logger.warn(result.summary(scenario()));
+            result.writeReports(settings.getReportDir(), scenario());
+
+            assertThat(result.getReads().getCount()).isPositive();
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.tanmoy.vpp.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Bulk-seeds {@code batteries} server-side with {@code generate_series}, which
+ * loads millions of rows far faster than going through the API.
+ */
+public final class SeedData {
+
+    public static final int MIN_POSTCODE = 1000;
+    public static final int MAX_POSTCODE = 9999;
+
+    private static final long BATCH_ROWS = 1_000_000L;
+
+    private static final String SEED_SQL = """
+        INSERT INTO batteries (id, name, postcode, capacity, postcode_numeric)
+        SELECT gen_random_uuid(), 'Seed-' || g, p::text, c, p
+        FROM (
+            SELECT g,
+                   ? + floor(random() * (? - ? + 1))::int AS p,
+                   100 + floor(random() * 50000)::int AS c
+            FROM generate_series(?, ?) AS g
+        ) s
+    """;
+
+    private SeedData() {}
+
+    public static void seed(JdbcTemplate jdbcTemplate, long rows) {
+        jdbcTemplate.update("TRUNCATE batteries");
+        for (long from = 1; from <= rows; from += BATCH_ROWS) {
+            long to = Math.min(rows, from + BATCH_ROWS - 1);
+            jdbcTemplate.update(SEED_SQL, MIN_POSTCODE, MAX_POSTCODE, MIN_POSTCODE, from, to);
+        }
+        jdbcTemplate.execute("VACUUM ANALYZE batteries");
+    }
+}
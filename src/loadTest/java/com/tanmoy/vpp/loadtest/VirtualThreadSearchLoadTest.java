@@ -0,0 +1,18 @@
+package com.tanmoy.vpp.loadtest;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Needs the Java 21 toolchain: {@code ./gradlew loadTest -PjavaVersion=21}.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadSearchLoadTest extends SearchConcurrencyLoadTest {
+
+    @Override
+    protected String scenario() {
+        return "search-virtual-threads";
+    }
+}
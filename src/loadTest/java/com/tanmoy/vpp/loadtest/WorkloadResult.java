@@ -0,0 +1,35 @@
+package com.tanmoy.vpp.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+public final class WorkloadResult {
+
+    private final LatencyReport reads;
+    private final LatencyReport writes;
+    private final Duration measured;
+
+    public WorkloadResult(LatencyReport reads, LatencyReport writes, Duration measured) {
+        this.reads = reads;
+        this.writes = writes;
+        this.measured = measured;
+    }
+
+    public LatencyReport getReads() {
+        return reads;
+    }
+
+    public LatencyReport getWrites() {
+        return writes;
+    }
+
+    public String summary(String scenario) {
+        return "[" + scenario + "]\n  " + reads.summary(measured) + "\n  " + writes.summary(measured);
+    }
+
+    public void writeReports(Path dir, String scenario) throws IOException {
+        reads.writePercentileDistribution(dir, scenario);
+        writes.writePercentileDistribution(dir, scenario);
+    }
+}
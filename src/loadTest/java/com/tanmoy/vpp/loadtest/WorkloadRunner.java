@@ -0,0 +1,118 @@
+package com.tanmoy.vpp.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives a closed-loop mixed workload: every client repeatedly issues either a
+ * postcode range search or a small insert, and records latencies once the
+ * warm-up period is over.
+ */
+public final class WorkloadRunner {
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final LoadTestSettings settings;
+
+    public WorkloadRunner(HttpClient httpClient, URI baseUri, LoadTestSettings settings) {
+        this.httpClient = httpClient;
+        this.baseUri = baseUri;
+        this.settings = settings;
+    }
+
+    public WorkloadResult run(ExecutorService clientExecutor, int clients, double writeRatio) throws Exception {
+        long start = System.nanoTime();
+        long measureFrom = start + settings.getWarmup().toNanos();
+        long deadline = measureFrom + settings.getDuration().toNanos();
+
+        List<Future<LatencyReport[]>> futures = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            futures.add(clientExecutor.submit(() -> runClient(measureFrom, deadline, writeRatio)));
+        }
+
+        LatencyReport reads = new LatencyReport("search");
+        LatencyReport writes = new LatencyReport("insert");
+        for (Future<LatencyReport[]> future : futures) {
+            LatencyReport[] reports = future.get();
+            reads.add(reports[0]);
+            writes.add(reports[1]);
+        }
+        return new WorkloadResult(reads, writes, settings.getDuration());
+    }
+
+    private LatencyReport[] runClient(long measureFrom, long deadline, double writeRatio) {
+        LatencyReport reads = new LatencyReport("search");
+        LatencyReport writes = new LatencyReport("insert");
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long now = System.nanoTime();
+        while (now < deadline) {
+            boolean write = random.nextDouble() < writeRatio;
+            HttpRequest request = write ? insertRequest(random) : searchRequest(random);
+            LatencyReport report = write ? writes : reads;
+
+            long started = System.nanoTime();
+            boolean ok = send(request);
+            now = System.nanoTime();
+
+            if (started >= measureFrom) {
+                if (ok) {
+                    report.record(started, now);
+                } else {
+                    report.recordError();
+                }
+            }
+        }
+        return new LatencyReport[] {reads, writes};
+    }
+
+    private boolean send(HttpRequest request) {
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() < 300;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpRequest searchRequest(ThreadLocalRandom random) {
+        int start = SeedData.MIN_POSTCODE + random.nextInt(SeedData.MAX_POSTCODE - SeedData.MIN_POSTCODE);
+        int end = Math.min(SeedData.MAX_POSTCODE, start + random.nextInt(settings.getMaxRangeWidth() + 1));
+        return HttpRequest.newBuilder(baseUri.resolve("/api/batteries/search?startPostcode=" + start + "&endPostcode=" + end))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest insertRequest(ThreadLocalRandom random) {
+        int batteries = 1 + random.nextInt(5);
+        StringBuilder body = new StringBuilder("{\"batteries\":[");
+        for (int i = 0; i < batteries; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            int postcode = SeedData.MIN_POSTCODE + random.nextInt(SeedData.MAX_POSTCODE - SeedData.MIN_POSTCODE + 1);
+            body.append("{\"name\":\"Load-").append(random.nextInt(1_000_000))
+                    .append("\",\"postcode\":\"").append(postcode)
+                    .append("\",\"capacity\":").append(100 + random.nextInt(50_000)).append('}');
+        }
+        body.append("]}");
+        return HttpRequest.newBuilder(baseUri.resolve("/api/batteries"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+}
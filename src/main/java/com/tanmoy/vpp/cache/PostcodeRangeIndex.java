@@ -0,0 +1,97 @@
+package com.tanmoy.vpp.cache;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Finds the cached search keys whose postcode range overlaps a given span
+ * without scanning every key. A key spanning {@code s} postcodes is filed on
+ * the level whose bucket width is the smallest power of two above {@code s},
+ * so it lands in at most two buckets; a lookup visits only the populated
+ * buckets of each level that intersect the span. Postcodes are never
+ * negative, so the part of a range below zero is ignored; bucket arithmetic
+ * is done in {@code long} so a range ending at {@code Integer.MAX_VALUE}
+ * still terminates.
+ *
+ * <p>Thread-safe; all methods synchronise on the index.
+ */
+class PostcodeRangeIndex {
+
+    private static final int LEVELS = Integer.SIZE;
+
+    @SuppressWarnings("unchecked")
+    private final TreeMap<Integer, Set<SearchKey>>[] levels = new TreeMap[LEVELS];
+
+    synchronized void add(SearchKey key) {
+        int start = Math.max(0, key.startPostcode());
+        int end = key.endPostcode();
+        if (end < start) {
+            return;
+        }
+        int level = levelOf(start, end);
+        if (levels[level] == null) {
+            levels[level] = new TreeMap<>();
+        }
+        for (long bucket = start >> level; bucket <= end >> level; bucket++) {
+            levels[level].computeIfAbsent((int) bucket, b -> new HashSet<>()).add(key);
+        }
+    }
+
+    synchronized void remove(SearchKey key) {
+        int start = Math.max(0, key.startPostcode());
+        int end = key.endPostcode();
+        if (end < start) {
+            return;
+        }
+        int level = levelOf(start, end);
+        TreeMap<Integer, Set<SearchKey>> buckets = levels[level];
+        if (buckets == null) {
+            return;
+        }
+        for (long bucket = start >> level; bucket <= end >> level; bucket++) {
+            Set<SearchKey> keys = buckets.get((int) bucket);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                buckets.remove((int) bucket);
+            }
+        }
+    }
+
+    /** Keys whose postcode range overlaps {@code [fromPostcode, toPostcode]}. */
+    synchronized Set<SearchKey> overlapping(int fromPostcode, int toPostcode) {
+        Set<SearchKey> matches = new HashSet<>();
+        fromPostcode = Math.max(0, fromPostcode);
+        if (toPostcode < fromPostcode) {
+            return matches;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            TreeMap<Integer, Set<SearchKey>> buckets = levels[level];
+            if (buckets == null || buckets.isEmpty()) {
+                continue;
+            }
+            for (Set<SearchKey> keys : buckets.subMap(fromPostcode >> level, true, toPostcode >> level, true).values()) {
+                for (SearchKey key : keys) {
+                    if (key.overlapsPostcodes(fromPostcode, toPostcode)) {
+                        matches.add(key);
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    synchronized int size() {
+        Set<SearchKey> keys = new HashSet<>();
+        for (TreeMap<Integer, Set<SearchKey>> buckets : levels) {
+            if (buckets != null) {
+                buckets.values().forEach(keys::addAll);
+            }
+        }
+        return keys.size();
+    }
+
+    private static int levelOf(int start, int end) {
+        long span = (long) end - start;
+        return Math.min(LEVELS - 1, Long.SIZE - Long.numberOfLeadingZeros(span));
+    }
+}
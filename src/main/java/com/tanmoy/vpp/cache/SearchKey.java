@@ -0,0 +1,21 @@
+package com.tanmoy.vpp.cache;
+
+/**
+ * Identifies one search request; two searches with the same key return the same result.
+ */
+public record SearchKey(int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity,
+                        boolean withDistribution) {
+
+    public SearchKey(int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity) {
+        this(startPostcode, endPostcode, minCapacity, maxCapacity, false);
+    }
+
+    public boolean overlapsPostcodes(int fromPostcode, int toPostcode) {
+        return startPostcode <= toPostcode && fromPostcode <= endPostcode;
+    }
+
+    public boolean matchesCapacity(int capacity) {
+        return (minCapacity == null || capacity >= minCapacity)
+                && (maxCapacity == null || capacity <= maxCapacity);
+    }
+}
@@ -0,0 +1,175 @@
+package com.tanmoy.vpp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import com.tanmoy.vpp.event.BatteriesSavedEvent;
+import com.tanmoy.vpp.index.CapacityIndex;
+import com.tanmoy.vpp.model.Battery;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of search responses keyed by the full query tuple.
+ *
+ * <p>The bound is {@code maximum-weight} battery names summed over all cached
+ * responses, so memory stays proportional to what is held rather than to the
+ * entry count; responses with more than {@code max-entry-rows} names are not
+ * cached at all, since one of them would evict many small dashboards.
+ *
+ * <p>After a committed insert only the entries whose postcode range (and
+ * capacity bounds) contain at least one inserted battery are dropped; other
+ * dashboards keep their cached results. Bulk imports invalidate by the
+ * imported postcode span. Affected keys are found through a
+ * {@link PostcodeRangeIndex}, so invalidation cost follows the number of
+ * overlapping entries, not the cache size. {@code expire-after-write} bounds
+ * how long a result computed concurrently with an insert can outlive it.
+ *
+ * <p>Hit, miss and eviction counts are published to Micrometer as the
+ * {@code cache.*} meters with {@code cache=batterySearch}.
+ */
+@Component
+@Profile("!reactive")
+public class SearchResultCache {
+
+    private static final Logger logger = LogManager.getLogger(SearchResultCache.class);
+
+    public static final String CACHE_NAME = "batterySearch";
+
+    private final Cache<SearchKey, BatterySearchResponseDto> cache;
+    private final PostcodeRangeIndex keysByPostcode = new PostcodeRangeIndex();
+    private final int maxEntryRows;
+
+    @Autowired
+    public SearchResultCache(MeterRegistry meterRegistry,
+                             @Value("${vpp.search.cache.enabled:true}") boolean enabled,
+                             @Value("${vpp.search.cache.maximum-weight:500000}") long maximumWeight,
+                             @Value("${vpp.search.cache.max-entry-rows:50000}") int maxEntryRows,
+                             @Value("${vpp.search.cache.expire-after-write:30s}") Duration expireAfterWrite) {
+        this.maxEntryRows = maxEntryRows;
+        if (!enabled) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((SearchKey key, BatterySearchResponseDto response) -> 1 + response.getBatteryNames().size())
+                .expireAfterWrite(expireAfterWrite)
+                .removalListener(this::onRemoval)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public BatterySearchResponseDto get(SearchKey key, Function<SearchKey, BatterySearchResponseDto> loader) {
+        if (cache == null) {
+            return loader.apply(key);
+        }
+        // Oversized responses are handed back through the holder; returning null keeps them out of the cache
+        BatterySearchResponseDto[] uncached = new BatterySearchResponseDto[1];
+        BatterySearchResponseDto response = cache.get(key, k -> {
+            BatterySearchResponseDto loaded = loader.apply(k);
+            if (loaded.getBatteryNames().size() > maxEntryRows) {
+                logger.debug("Not caching search response: Key={}, Rows={}", k, loaded.getBatteryNames().size());
+                uncached[0] = loaded;
+                return null;
+            }
+            keysByPostcode.add(k);
+            return loaded;
+        });
+        if (response != null) {
+            return response;
+        }
+        // A caller that waited on another caller's oversized load has nothing in its holder
+        return uncached[0] != null ? uncached[0] : loader.apply(key);
+    }
+
+    public long size() {
+        return cache == null ? 0 : cache.estimatedSize();
+    }
+
+    @TransactionalEventListener
+    public void onBatteriesSaved(BatteriesSavedEvent event) {
+        if (cache == null) {
+            return;
+        }
+        long before = cache.estimatedSize();
+
+        if (event.isDetailed()) {
+            long[] inserted = sortedPostcodeCapacities(event.getBatteries());
+            Set<SearchKey> affected = new HashSet<>();
+            int previous = -1;
+            for (long packed : inserted) {
+                int postcode = (int) (packed >>> 32);
+                if (postcode != previous) {
+                    affected.addAll(keysByPostcode.overlapping(postcode, postcode));
+                    previous = postcode;
+                }
+            }
+            affected.removeIf(key -> !containsMatch(inserted, key));
+            cache.invalidateAll(affected);
+        } else {
+            cache.invalidateAll(keysByPostcode.overlapping(event.getMinPostcode(), event.getMaxPostcode()));
+        }
+
+        logger.debug("Invalidated search cache: Before={}, After={}", before, cache.estimatedSize());
+    }
+
+    /** Keys still held by the range index; every cached key is in it. */
+    int indexedKeys() {
+        return keysByPostcode.size();
+    }
+
+    private void onRemoval(SearchKey key, BatterySearchResponseDto response, RemovalCause cause) {
+        // A replaced entry is still cached; a key re-added since its removal must stay indexed
+        if (key != null && cause != RemovalCause.REPLACED && !cache.asMap().containsKey(key)) {
+            keysByPostcode.remove(key);
+        }
+    }
+
+    private static long[] sortedPostcodeCapacities(List<Battery> batteries) {
+        long[] packed = new long[batteries.size()];
+        for (int i = 0; i < packed.length; i++) {
+            Battery battery = batteries.get(i);
+            packed[i] = CapacityIndex.pack(battery.getPostcodeNumeric(), battery.getCapacity());
+        }
+        Arrays.sort(packed);
+        return packed;
+    }
+
+    /**
+     * Whether any inserted battery falls inside the key's postcode range and capacity bounds.
+     */
+    private static boolean containsMatch(long[] inserted, SearchKey key) {
+        int from = Arrays.binarySearch(inserted, CapacityIndex.pack(key.startPostcode(), 0));
+        if (from < 0) {
+            from = -from - 1;
+        }
+        for (int i = from; i < inserted.length; i++) {
+            int postcode = (int) (inserted[i] >>> 32);
+            if (postcode > key.endPostcode()) {
+                return false;
+            }
+            if (key.matchesCapacity((int) inserted[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,66 @@
+package com.tanmoy.vpp.config;
+
+import org.springframework.boot.autoconfigure.AutoConfigurationImportFilter;
+import org.springframework.boot.autoconfigure.AutoConfigurationMetadata;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+import java.util.List;
+
+/**
+ * Keeps the R2DBC auto-configurations out of every context that does not
+ * activate the {@code reactive} profile, so no R2DBC {@code ConnectionFactory}
+ * or pool is created next to the JDBC one. With {@code reactive} active it
+ * does the reverse and drops the JDBC pool and JPA auto-configurations; Flyway
+ * then migrates through its own unpooled connection to {@code spring.flyway.url}.
+ * Registered in {@code META-INF/spring.factories}; unlike a
+ * {@code spring.autoconfigure.exclude} list it cannot be dropped by a profile
+ * or environment variable that sets its own exclusions.
+ */
+public class ReactiveStackAutoConfigurationFilter implements AutoConfigurationImportFilter, EnvironmentAware {
+
+    public static final String REACTIVE_PROFILE = "reactive";
+
+    private static final List<String> REACTIVE_ONLY_PACKAGES = List.of(
+            "org.springframework.boot.autoconfigure.r2dbc.",
+            "org.springframework.boot.autoconfigure.data.r2dbc.",
+            "org.springframework.boot.actuate.autoconfigure.r2dbc.");
+
+    private static final List<String> BLOCKING_ONLY_PACKAGES = List.of(
+            "org.springframework.boot.autoconfigure.jdbc.",
+            "org.springframework.boot.autoconfigure.orm.jpa.",
+            "org.springframework.boot.autoconfigure.data.jpa.",
+            "org.springframework.boot.actuate.autoconfigure.jdbc.",
+            "org.springframework.boot.actuate.autoconfigure.metrics.jdbc.",
+            "org.springframework.boot.actuate.autoconfigure.metrics.orm.jpa.");
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public boolean[] match(String[] autoConfigurationClasses, AutoConfigurationMetadata autoConfigurationMetadata) {
+        boolean reactive = environment != null && environment.acceptsProfiles(Profiles.of(REACTIVE_PROFILE));
+        boolean[] matches = new boolean[autoConfigurationClasses.length];
+        for (int i = 0; i < autoConfigurationClasses.length; i++) {
+            matches[i] = !inPackages(autoConfigurationClasses[i], reactive ? BLOCKING_ONLY_PACKAGES : REACTIVE_ONLY_PACKAGES);
+        }
+        return matches;
+    }
+
+    private static boolean inPackages(String autoConfigurationClass, List<String> packages) {
+        if (autoConfigurationClass == null) {
+            return false;
+        }
+        for (String prefix : packages) {
+            if (autoConfigurationClass.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
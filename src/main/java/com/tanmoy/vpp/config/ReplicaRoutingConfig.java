@@ -0,0 +1,86 @@
+package com.tanmoy.vpp.config;
+
+import com.tanmoy.vpp.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * With the {@code replica} profile, {@code @Transactional(readOnly = true)} work
+ * reads from the streaming replicas in {@code vpp.datasource.replica.urls} and
+ * everything else writes to {@code spring.datasource}.
+ *
+ * <p>The application {@link DataSource} is a {@link LazyConnectionDataSourceProxy}:
+ * it only fetches a physical connection on the first statement, after the
+ * transaction manager has marked the connection read-only, and then takes it
+ * from {@link ReplicaRoutingDataSource} instead of the primary pool. Reads in a
+ * read-only transaction may therefore be up to {@code max-lag} stale, including
+ * a caller's own just-committed writes.
+ */
+@Configuration
+@Profile("replica")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${vpp.datasource.replica.urls}") List<String> urls,
+            @Value("${vpp.datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${vpp.datasource.replica.password:${spring.datasource.password}}") String password,
+            @Value("${vpp.datasource.replica.maximum-pool-size:20}") int maximumPoolSize,
+            @Value("${vpp.datasource.replica.connection-timeout:2s}") Duration connectionTimeout,
+            @Value("${vpp.datasource.replica.max-lag:5s}") Duration maxLag,
+            @Value("${vpp.datasource.replica.check-interval:2s}") Duration checkInterval) {
+
+        List<DataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            // Start empty so an unreachable replica does not block startup
+            replica.setMinimumIdle(0);
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(replica);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                primaryDataSource, ReplicaRoutingDataSource.named(replicas), maxLag, checkInterval);
+        routing.bindMetrics(meterRegistry);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,71 @@
+package com.tanmoy.vpp.config;
+
+import com.tanmoy.vpp.shard.PostcodeShard;
+import com.tanmoy.vpp.shard.ShardRouter;
+import com.tanmoy.vpp.shard.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * With the {@code sharded} profile, batteries live on the PostgreSQL nodes in
+ * {@code vpp.sharding.shards} instead of {@code spring.datasource}. Each shard
+ * gets its own connection pool and is migrated with the regular Flyway scripts
+ * at startup. {@code spring.datasource} is still used by the parts of the app
+ * that are not shard-aware (the capacity index, the reactive stack); inserts and
+ * bulk imports are routed to the owning shard.
+ */
+@Configuration
+@Profile("sharded")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig implements DisposableBean {
+
+    private static final Logger logger = LogManager.getLogger(ShardingConfig.class);
+
+    private final List<HikariDataSource> shardDataSources = new ArrayList<>();
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties, MeterRegistry meterRegistry) {
+        List<PostcodeShard> shards = new ArrayList<>(properties.getShards().size());
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + shard.getName());
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername());
+            dataSource.setPassword(shard.getPassword());
+            dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+            dataSource.addDataSourceProperty("reWriteBatchedInserts", "true");
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            shardDataSources.add(dataSource);
+
+            logger.info("Migrate shard: Name={}: START", shard.getName());
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .locations("classpath:db/migration")
+                    .baselineOnMigrate(true)
+                    .load()
+                    .migrate();
+            logger.info("Migrate shard: Name={}: COMPLETE", shard.getName());
+
+            int lastPostcode = shard.getToPostcode() == null ? Integer.MAX_VALUE : shard.getToPostcode() - 1;
+            shards.add(new PostcodeShard(shard.getName(), shard.getFromPostcode(), lastPostcode, dataSource));
+        }
+        return new ShardRouter(shards);
+    }
+
+    @Override
+    public void destroy() {
+        shardDataSources.forEach(HikariDataSource::close);
+    }
+}
@@ -5,6 +5,8 @@ public final class ValidationMessages {
     private ValidationMessages() {}
 
     public static final String BATTERY_NAME_REQUIRED = "Battery name is required";
+    public static final String BATTERY_NAME_SIZE = "Battery name must be at most 255 characters";
+    public static final String BATTERY_NAME_CHARACTERS = "Battery name must not contain NUL or unpaired surrogate characters";
     public static final String POSTCODE_REQUIRED = "Postcode is required";
     public static final String POSTCODE_SIZE = "Postcode must be between 4 to 10 digits";
     public static final String CAPACITY_REQUIRED = "Capacity is required";
@@ -1,34 +1,71 @@
 package com.tanmoy.vpp.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tanmoy.vpp.dto.request.BatteryListRequest;
+import com.tanmoy.vpp.dto.response.BatterySearchPageResponseDto;
 import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import com.tanmoy.vpp.dto.response.BatterySearchSummaryDto;
+import com.tanmoy.vpp.dto.response.IngestionJobResponseDto;
 import com.tanmoy.vpp.dto.response.SuccessResponseDto;
+import com.tanmoy.vpp.exception.IngestionJobNotFoundException;
+import com.tanmoy.vpp.ingest.IngestionJob;
+import com.tanmoy.vpp.ingest.IngestionQueue;
+import com.tanmoy.vpp.metrics.BatteryMetrics;
+import com.tanmoy.vpp.metrics.BatteryMetrics.IngestFormat;
+import com.tanmoy.vpp.metrics.BatteryMetrics.SearchEndpoint;
 import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.service.BatteryImportService;
 import com.tanmoy.vpp.service.BatteryService;
+import com.tanmoy.vpp.util.PostcodeRangeValidator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/batteries")
+@Profile("!reactive")
 public class BatteryController {
 
     private static final Logger logger = LogManager.getLogger(BatteryController.class);
 
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final BatteryService batteryService;
+    private final BatteryImportService batteryImportService;
+    private final ObjectMapper objectMapper;
+    private final BatteryMetrics batteryMetrics;
+    private final IngestionQueue ingestionQueue;
 
     @Autowired
-    public BatteryController(BatteryService batteryService) {
+    public BatteryController(BatteryService batteryService,
+                             BatteryImportService batteryImportService,
+                             ObjectMapper objectMapper,
+                             BatteryMetrics batteryMetrics,
+                             IngestionQueue ingestionQueue) {
         this.batteryService = batteryService;
+        this.batteryImportService = batteryImportService;
+        this.objectMapper = objectMapper;
+        this.batteryMetrics = batteryMetrics;
+        this.ingestionQueue = ingestionQueue;
     }
 
     @Operation(summary = "Insert a list of batteries")
@@ -36,6 +73,7 @@ public class BatteryController {
     public ResponseEntity<SuccessResponseDto> insertBatteries(
             @RequestBody @Valid BatteryListRequest batteryListRequest) {
 
+        long startNanos = System.nanoTime();
         logger.info("Process insert batteries request: Size={}: START", batteryListRequest.getBatteries().size());
 
         List<Battery> batteries = batteryListRequest.getBatteries().stream()
@@ -43,6 +81,7 @@ public class BatteryController {
                 .collect(Collectors.toList());
 
         batteryService.saveAll(batteries);
+        batteryMetrics.recordInsert(batteries.size(), startNanos);
 
         logger.info("Process insert batteries request: Size={}: COMPLETE", batteryListRequest.getBatteries().size());
 
@@ -50,24 +89,208 @@ public class BatteryController {
                 .body(new SuccessResponseDto("Saved " + batteryListRequest.getBatteries().size() + " batteries successfully."));
     }
 
+    @Operation(summary = "Validate and enqueue a list of batteries for asynchronous insertion")
+    @PostMapping("/jobs")
+    public ResponseEntity<IngestionJobResponseDto> submitBatteries(
+            @RequestBody @Valid BatteryListRequest batteryListRequest) {
+
+        logger.info("Process submit batteries request: Size={}: START", batteryListRequest.getBatteries().size());
+
+        List<Battery> batteries = batteryListRequest.getBatteries().stream()
+                .map(req -> Battery.of(req.getName(), req.getPostcode(), req.getCapacity()))
+                .collect(Collectors.toList());
+
+        IngestionJob job = ingestionQueue.submit(batteries);
+
+        logger.info("Process submit batteries request: Size={}, JobId={}: COMPLETE", batteries.size(), job.getId());
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/batteries/jobs/" + job.getId()))
+                .body(IngestionJobResponseDto.of(job));
+    }
+
+    @Operation(summary = "Get the status of an asynchronous insertion job")
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<IngestionJobResponseDto> getIngestionJob(
+            @Parameter(description = "Job id returned by POST /api/batteries/jobs") @PathVariable UUID jobId) {
+
+        IngestionJob job = ingestionQueue.find(jobId)
+                .orElseThrow(() -> new IngestionJobNotFoundException("Ingestion job not found: " + jobId));
+
+        return ResponseEntity.ok(IngestionJobResponseDto.of(job));
+    }
+
+    @Operation(summary = "Bulk import batteries from a CSV stream (name,postcode,capacity)")
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<SuccessResponseDto> importBatteriesCsv(InputStream body) {
+
+        long startNanos = System.nanoTime();
+        logger.info("Process import batteries request: Format=csv: START");
+
+        long imported = batteryImportService.importCsv(body);
+        batteryMetrics.recordIngest(IngestFormat.CSV, imported, startNanos);
+
+        logger.info("Process import batteries request: Format=csv, Size={}: COMPLETE", imported);
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new SuccessResponseDto("Imported " + imported + " batteries successfully."));
+    }
+
+    @Operation(summary = "Bulk import batteries from an NDJSON stream")
+    @PostMapping(value = "/import", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<SuccessResponseDto> importBatteriesNdjson(InputStream body) {
+
+        long startNanos = System.nanoTime();
+        logger.info("Process import batteries request: Format=ndjson: START");
+
+        long imported = batteryImportService.importNdjson(body);
+        batteryMetrics.recordIngest(IngestFormat.NDJSON, imported, startNanos);
+
+        logger.info("Process import batteries request: Format=ndjson, Size={}: COMPLETE", imported);
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new SuccessResponseDto("Imported " + imported + " batteries successfully."));
+    }
+
+    @Operation(summary = "Bulk import batteries from a streamed {\"batteries\": [...]} JSON payload")
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SuccessResponseDto> importBatteriesJson(InputStream body) {
+
+        long startNanos = System.nanoTime();
+        logger.info("Process import batteries request: Format=json: START");
+
+        long imported = batteryImportService.importJson(body);
+        batteryMetrics.recordIngest(IngestFormat.JSON, imported, startNanos);
+
+        logger.info("Process import batteries request: Format=json, Size={}: COMPLETE", imported);
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new SuccessResponseDto("Imported " + imported + " batteries successfully."));
+    }
+
     @Operation(summary = "Search batteries by postcode range")
     @GetMapping("/search")
     public ResponseEntity<BatterySearchResponseDto> getBatteriesByPostcodeRange(
             @Parameter(description = "Start of postcode range") @RequestParam int startPostcode,
             @Parameter(description = "End of postcode range") @RequestParam int endPostcode,
             @Parameter(description = "Minimum capacity of battery") @RequestParam(required = false) Integer minCapacity,
-            @Parameter(description = "Maximum capacity of battery") @RequestParam(required = false) Integer maxCapacity) {
+            @Parameter(description = "Maximum capacity of battery") @RequestParam(required = false) Integer maxCapacity,
+            @Parameter(description = "Also return p50/p90/p99 capacity and a bucketed capacity distribution")
+            @RequestParam(defaultValue = "false") boolean extendedStats) {
+
+        long startNanos = System.nanoTime();
+        logger.info("Process search batteries request: " +
+                "StartPostcode={}, EndPostcode={}, ExtendedStats={}: START", startPostcode, endPostcode, extendedStats);
+
+        BatterySearchResponseDto response = extendedStats
+                ? batteryService.getBatteriesWithDistributionByPostcodeRange(
+                        startPostcode, endPostcode, minCapacity, maxCapacity)
+                : batteryService.getBatteriesByPostcodeRange(startPostcode, endPostcode, minCapacity, maxCapacity);
+        batteryMetrics.recordSearch(SearchEndpoint.SEARCH, hasCapacityFilter(minCapacity, maxCapacity),
+                startNanos, response.getBatteryNames().size());
 
         logger.info("Process search batteries request: " +
+                "StartPostcode={}, EndPostcode={}: COMPLETE", startPostcode, endPostcode);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Stream batteries by postcode range as NDJSON: one {\"name\"} record per battery, then a stats record")
+    @GetMapping(value = "/search", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBatteriesByPostcodeRange(
+            @Parameter(description = "Start of postcode range") @RequestParam int startPostcode,
+            @Parameter(description = "End of postcode range") @RequestParam int endPostcode,
+            @Parameter(description = "Minimum capacity of battery") @RequestParam(required = false) Integer minCapacity,
+            @Parameter(description = "Maximum capacity of battery") @RequestParam(required = false) Integer maxCapacity) {
+
+        PostcodeRangeValidator.validate(startPostcode, endPostcode);
+
+        StreamingResponseBody body = outputStream -> {
+
+            long startNanos = System.nanoTime();
+            logger.info("Process stream batteries request: " +
+                    "StartPostcode={}, EndPostcode={}: START", startPostcode, endPostcode);
+
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.setRootValueSeparator(null);
+
+            BatterySearchSummaryDto summary = batteryService.streamBatteriesByPostcodeRange(
+                    startPostcode, endPostcode, minCapacity, maxCapacity, name -> {
+                        try {
+                            generator.writeStartObject();
+                            generator.writeStringField("name", name);
+                            generator.writeEndObject();
+                            generator.writeRaw('\n');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+
+            generator.writeObject(summary);
+            generator.writeRaw('\n');
+            generator.flush();
+            batteryMetrics.recordSearch(SearchEndpoint.SEARCH_STREAM, hasCapacityFilter(minCapacity, maxCapacity),
+                    startNanos, summary.getTotalBatteries());
+
+            logger.info("Process stream batteries request: " +
+                    "StartPostcode={}, EndPostcode={}: COMPLETE", startPostcode, endPostcode);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+    @Operation(summary = "Battery count, total and average capacity for a postcode range, without names")
+    @GetMapping("/search/stats")
+    public ResponseEntity<BatterySearchSummaryDto> getBatteryStatsByPostcodeRange(
+            @Parameter(description = "Start of postcode range") @RequestParam int startPostcode,
+            @Parameter(description = "End of postcode range") @RequestParam int endPostcode,
+            @Parameter(description = "Minimum capacity of battery") @RequestParam(required = false) Integer minCapacity,
+            @Parameter(description = "Maximum capacity of battery") @RequestParam(required = false) Integer maxCapacity) {
+
+        long startNanos = System.nanoTime();
+        logger.info("Process search battery stats request: " +
                 "StartPostcode={}, EndPostcode={}: START", startPostcode, endPostcode);
 
-        BatterySearchResponseDto response = batteryService.getBatteriesByPostcodeRange(
+        BatterySearchSummaryDto response = batteryService.getBatteryStatsByPostcodeRange(
                 startPostcode, endPostcode, minCapacity, maxCapacity);
+        batteryMetrics.recordSearch(SearchEndpoint.SEARCH_STATS, hasCapacityFilter(minCapacity, maxCapacity),
+                startNanos, response.getTotalBatteries());
 
-        logger.info("Process search batteries request: " +
+        logger.info("Process search battery stats request: " +
                 "StartPostcode={}, EndPostcode={}: COMPLETE", startPostcode, endPostcode);
 
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Search batteries by postcode range, one keyset page of names at a time")
+    @GetMapping("/search/page")
+    public ResponseEntity<BatterySearchPageResponseDto> getBatteryPageByPostcodeRange(
+            @Parameter(description = "Start of postcode range") @RequestParam int startPostcode,
+            @Parameter(description = "End of postcode range") @RequestParam int endPostcode,
+            @Parameter(description = "Minimum capacity of battery") @RequestParam(required = false) Integer minCapacity,
+            @Parameter(description = "Maximum capacity of battery") @RequestParam(required = false) Integer maxCapacity,
+            @Parameter(description = "Number of names per page (1 to 1000)") @RequestParam(defaultValue = "100") int pageSize,
+            @Parameter(description = "nextCursor from the previous page") @RequestParam(required = false) String cursor) {
+
+        long startNanos = System.nanoTime();
+        logger.info("Process search battery page request: " +
+                "StartPostcode={}, EndPostcode={}, PageSize={}: START", startPostcode, endPostcode, pageSize);
+
+        BatterySearchPageResponseDto response = batteryService.getBatteryPageByPostcodeRange(
+                startPostcode, endPostcode, minCapacity, maxCapacity, pageSize, cursor);
+        batteryMetrics.recordSearch(SearchEndpoint.SEARCH_PAGE, hasCapacityFilter(minCapacity, maxCapacity),
+                startNanos, response.getTotalBatteries());
+
+        logger.info("Process search battery page request: " +
+                "StartPostcode={}, EndPostcode={}, PageSize={}: COMPLETE", startPostcode, endPostcode, pageSize);
+
+        return ResponseEntity.ok(response);
+    }
+
+    private static boolean hasCapacityFilter(Integer minCapacity, Integer maxCapacity) {
+        return minCapacity != null || maxCapacity != null;
+    }
+
 }
@@ -0,0 +1,112 @@
+package com.tanmoy.vpp.controller;
+
+import com.tanmoy.vpp.dto.request.BatteryListRequest;
+import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import com.tanmoy.vpp.dto.response.SuccessResponseDto;
+import com.tanmoy.vpp.metrics.BatteryMetrics;
+import com.tanmoy.vpp.metrics.BatteryMetrics.SearchEndpoint;
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.service.ReactiveBatteryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import jakarta.validation.Valid;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.tanmoy.vpp.controller.BatteryController.APPLICATION_NDJSON_VALUE;
+
+/**
+ * WebFlux variant of {@link BatteryController}, active with the {@code reactive} profile.
+ */
+@RestController
+@RequestMapping("/api/batteries")
+@Profile("reactive")
+public class ReactiveBatteryController {
+
+    private static final Logger logger = LogManager.getLogger(ReactiveBatteryController.class);
+
+    private final ReactiveBatteryService batteryService;
+    private final BatteryMetrics batteryMetrics;
+
+    @Autowired
+    public ReactiveBatteryController(ReactiveBatteryService batteryService, BatteryMetrics batteryMetrics) {
+        this.batteryService = batteryService;
+        this.batteryMetrics = batteryMetrics;
+    }
+
+    @Operation(summary = "Insert a list of batteries")
+    @PostMapping
+    public Mono<ResponseEntity<SuccessResponseDto>> insertBatteries(
+            @RequestBody @Valid BatteryListRequest batteryListRequest) {
+
+        long startNanos = System.nanoTime();
+        int size = batteryListRequest.getBatteries().size();
+        logger.info("Process insert batteries request: Size={}: START", size);
+
+        List<Battery> batteries = batteryListRequest.getBatteries().stream()
+                .map(req -> Battery.of(req.getName(), req.getPostcode(), req.getCapacity()))
+                .collect(Collectors.toList());
+
+        return batteryService.saveAll(batteries)
+                .map(saved -> {
+                    batteryMetrics.recordInsert(size, startNanos);
+                    logger.info("Process insert batteries request: Size={}: COMPLETE", size);
+                    return ResponseEntity.status(HttpStatus.CREATED)
+                            .body(new SuccessResponseDto("Saved " + size + " batteries successfully."));
+                });
+    }
+
+    @Operation(summary = "Search batteries by postcode range")
+    @GetMapping("/search")
+    public Mono<BatterySearchResponseDto> getBatteriesByPostcodeRange(
+            @Parameter(description = "Start of postcode range") @RequestParam int startPostcode,
+            @Parameter(description = "End of postcode range") @RequestParam int endPostcode,
+            @Parameter(description = "Minimum capacity of battery") @RequestParam(required = false) Integer minCapacity,
+            @Parameter(description = "Maximum capacity of battery") @RequestParam(required = false) Integer maxCapacity) {
+
+        long startNanos = System.nanoTime();
+        logger.info("Process search batteries request: " +
+                "StartPostcode={}, EndPostcode={}: START", startPostcode, endPostcode);
+
+        return batteryService.getBatteriesByPostcodeRange(startPostcode, endPostcode, minCapacity, maxCapacity)
+                .doOnSuccess(response -> {
+                    batteryMetrics.recordSearch(SearchEndpoint.SEARCH, minCapacity != null || maxCapacity != null,
+                            startNanos, response.getBatteryNames().size());
+                    logger.info("Process search batteries request: " +
+                            "StartPostcode={}, EndPostcode={}: COMPLETE", startPostcode, endPostcode);
+                });
+    }
+
+    @Operation(summary = "Stream batteries by postcode range as NDJSON: one {\"name\"} record per battery, then a stats record")
+    @GetMapping(value = "/search", produces = APPLICATION_NDJSON_VALUE)
+    public Flux<Object> streamBatteriesByPostcodeRange(
+            @Parameter(description = "Start of postcode range") @RequestParam int startPostcode,
+            @Parameter(description = "End of postcode range") @RequestParam int endPostcode,
+            @Parameter(description = "Minimum capacity of battery") @RequestParam(required = false) Integer minCapacity,
+            @Parameter(description = "Maximum capacity of battery") @RequestParam(required = false) Integer maxCapacity) {
+
+        long startNanos = System.nanoTime();
+        logger.info("Process stream batteries request: " +
+                "StartPostcode={}, EndPostcode={}: START", startPostcode, endPostcode);
+
+        long[] matched = new long[1];
+        return batteryService.streamBatteriesByPostcodeRange(startPostcode, endPostcode, minCapacity, maxCapacity)
+                .doOnNext(record -> matched[0]++)
+                .doOnComplete(() -> {
+                    batteryMetrics.recordSearch(SearchEndpoint.SEARCH_STREAM, minCapacity != null || maxCapacity != null,
+                            startNanos, matched[0] - 1);
+                    logger.info("Process stream batteries request: " +
+                            "StartPostcode={}, EndPostcode={}: COMPLETE", startPostcode, endPostcode);
+                });
+    }
+}
@@ -0,0 +1,202 @@
+package com.tanmoy.vpp.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only side of the {@code replica} profile: hands out connections to the
+ * streaming replicas round-robin, skipping any that failed their last health
+ * check or replay more than {@code maxLag} behind the primary. With no usable
+ * replica every read goes to the primary.
+ *
+ * <p>Replicas are checked once at startup and then every {@code checkInterval}.
+ * Replication lag is measured on the replica itself; reading
+ * {@code pg_stat_wal_receiver} needs a superuser or {@code pg_read_all_stats}, and
+ * without it an idle primary makes a replica look stale.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    static final String LAG_SQL = """
+        SELECT CASE
+            WHEN NOT pg_is_in_recovery() THEN 0
+            WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()
+                 AND EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN 0
+            ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+        END
+    """;
+
+    private static final int CHECK_TIMEOUT_SECONDS = 2;
+
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService checker;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    Duration maxLag, Duration checkInterval) {
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        this.replicas = new ArrayList<>(replicas.size());
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            this.replicas.add(new Replica(name, dataSource));
+            targets.put(name, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::checkReplicas,
+                checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof HikariDataSource hikari) {
+                hikari.close();
+            }
+        }
+    }
+
+    public void bindMetrics(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("vpp.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication lag seen by the last health check")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            Gauge.builder("vpp.datasource.replica.usable", replica, r -> r.isUsable(maxLag) ? 1 : 0)
+                    .description("1 while reads are routed to the replica, 0 while they fall back to the primary")
+                    .tag("replica", replica.name)
+                    .register(registry);
+        }
+    }
+
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            replica.check(maxLag);
+        }
+    }
+
+    /** Names of the replicas currently accepting reads, for diagnostics and tests. */
+    public List<String> usableReplicas() {
+        List<String> usable = new ArrayList<>();
+        for (Replica replica : replicas) {
+            if (replica.isUsable(maxLag)) {
+                usable.add(replica.name);
+            }
+        }
+        return usable;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int size = replicas.size();
+        if (size == 0) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isUsable(maxLag)) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /** Names replicas {@code replica-1}, {@code replica-2}, ... in configuration order, matching their pool names. */
+    public static Map<String, DataSource> named(List<DataSource> dataSources) {
+        Map<String, DataSource> named = new LinkedHashMap<>();
+        for (int i = 0; i < dataSources.size(); i++) {
+            named.put("replica-" + (i + 1), dataSources.get(i));
+        }
+        return named;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean reachable;
+        private volatile double lagSeconds;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        boolean isUsable(Duration maxLag) {
+            return reachable && lagSeconds * 1000 <= maxLag.toMillis();
+        }
+
+        void check(Duration maxLag) {
+            boolean wasUsable = isUsable(maxLag);
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+                try (ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                    rs.next();
+                    lagSeconds = rs.getDouble(1);
+                }
+                reachable = true;
+            } catch (SQLException | RuntimeException e) {
+                reachable = false;
+                if (wasUsable) {
+                    logger.warn("Replica {} failed health check, routing reads to primary: {}", name, e.getMessage());
+                }
+                return;
+            }
+
+            boolean usable = isUsable(maxLag);
+            if (usable && !wasUsable) {
+                logger.info("Replica {} is usable: Lag={}s", name, lagSeconds);
+            } else if (!usable && wasUsable) {
+                logger.warn("Replica {} is {}s behind, over the {} limit; routing reads elsewhere",
+                        name, lagSeconds, maxLag);
+            }
+        }
+    }
+}
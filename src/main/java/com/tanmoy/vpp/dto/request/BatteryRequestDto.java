@@ -5,7 +5,13 @@ import com.tanmoy.vpp.constant.ValidationMessages;
 
 public class BatteryRequestDto {
 
+    /**
+     * Rejects what the {@code VARCHAR(255)} column cannot store, so bulk
+     * imports fail validation with a line number instead of inside {@code COPY}.
+     */
     @NotBlank(message = ValidationMessages.BATTERY_NAME_REQUIRED)
+    @Size(max = 255, message = ValidationMessages.BATTERY_NAME_SIZE)
+    @Pattern(regexp = "^[^\\u0000\\uD800-\\uDFFF]*$", message = ValidationMessages.BATTERY_NAME_CHARACTERS)
     private String name;
 
     @NotBlank(message = ValidationMessages.POSTCODE_REQUIRED)
@@ -0,0 +1,18 @@
+package com.tanmoy.vpp.dto.response;
+
+public class BatteryNameDto {
+
+    private String name;
+
+    public BatteryNameDto(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,64 @@
+package com.tanmoy.vpp.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatterySearchPageResponseDto {
+
+    private List<String> batteryNames;
+    private long totalBatteries;
+    private long totalWattCapacity;
+    private double averageWattCapacity;
+    private String nextCursor;
+
+    public BatterySearchPageResponseDto(List<String> batteryNames, long totalBatteries, long totalWattCapacity,
+                                        double averageWattCapacity, String nextCursor) {
+        this.batteryNames = batteryNames;
+        this.totalBatteries = totalBatteries;
+        this.totalWattCapacity = totalWattCapacity;
+        this.averageWattCapacity = averageWattCapacity;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<String> getBatteryNames() {
+        return batteryNames;
+    }
+
+    public void setBatteryNames(List<String> batteryNames) {
+        this.batteryNames = batteryNames;
+    }
+
+    public long getTotalBatteries() {
+        return totalBatteries;
+    }
+
+    public void setTotalBatteries(long totalBatteries) {
+        this.totalBatteries = totalBatteries;
+    }
+
+    public long getTotalWattCapacity() {
+        return totalWattCapacity;
+    }
+
+    public void setTotalWattCapacity(long totalWattCapacity) {
+        this.totalWattCapacity = totalWattCapacity;
+    }
+
+    public double getAverageWattCapacity() {
+        return averageWattCapacity;
+    }
+
+    public void setAverageWattCapacity(double averageWattCapacity) {
+        this.averageWattCapacity = averageWattCapacity;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -1,12 +1,16 @@
 package com.tanmoy.vpp.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class BatterySearchResponseDto {
 
     private List<String> batteryNames;
     private long totalWattCapacity;
     private double averageWattCapacity;
+    private CapacityDistributionDto capacityDistribution;
 
     public BatterySearchResponseDto(List<String> batteryNames, long totalWattCapacity, double averageWattCapacity) {
         this.batteryNames = batteryNames;
@@ -37,4 +41,13 @@ public class BatterySearchResponseDto {
     public void setAverageWattCapacity(double averageWattCapacity) {
         this.averageWattCapacity = averageWattCapacity;
     }
+
+    /** Only set when extended stats were requested. */
+    public CapacityDistributionDto getCapacityDistribution() {
+        return capacityDistribution;
+    }
+
+    public void setCapacityDistribution(CapacityDistributionDto capacityDistribution) {
+        this.capacityDistribution = capacityDistribution;
+    }
 }
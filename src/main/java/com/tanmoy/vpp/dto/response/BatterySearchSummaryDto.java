@@ -0,0 +1,38 @@
+package com.tanmoy.vpp.dto.response;
+
+public class BatterySearchSummaryDto {
+
+    private long totalBatteries;
+    private long totalWattCapacity;
+    private double averageWattCapacity;
+
+    public BatterySearchSummaryDto(long totalBatteries, long totalWattCapacity, double averageWattCapacity) {
+        this.totalBatteries = totalBatteries;
+        this.totalWattCapacity = totalWattCapacity;
+        this.averageWattCapacity = averageWattCapacity;
+    }
+
+    public long getTotalBatteries() {
+        return totalBatteries;
+    }
+
+    public void setTotalBatteries(long totalBatteries) {
+        this.totalBatteries = totalBatteries;
+    }
+
+    public long getTotalWattCapacity() {
+        return totalWattCapacity;
+    }
+
+    public void setTotalWattCapacity(long totalWattCapacity) {
+        this.totalWattCapacity = totalWattCapacity;
+    }
+
+    public double getAverageWattCapacity() {
+        return averageWattCapacity;
+    }
+
+    public void setAverageWattCapacity(double averageWattCapacity) {
+        this.averageWattCapacity = averageWattCapacity;
+    }
+}
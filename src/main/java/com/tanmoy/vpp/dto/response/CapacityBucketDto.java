@@ -0,0 +1,38 @@
+package com.tanmoy.vpp.dto.response;
+
+public class CapacityBucketDto {
+
+    private long fromWattCapacity;
+    private long toWattCapacity;
+    private long batteryCount;
+
+    public CapacityBucketDto(long fromWattCapacity, long toWattCapacity, long batteryCount) {
+        this.fromWattCapacity = fromWattCapacity;
+        this.toWattCapacity = toWattCapacity;
+        this.batteryCount = batteryCount;
+    }
+
+    public long getFromWattCapacity() {
+        return fromWattCapacity;
+    }
+
+    public void setFromWattCapacity(long fromWattCapacity) {
+        this.fromWattCapacity = fromWattCapacity;
+    }
+
+    public long getToWattCapacity() {
+        return toWattCapacity;
+    }
+
+    public void setToWattCapacity(long toWattCapacity) {
+        this.toWattCapacity = toWattCapacity;
+    }
+
+    public long getBatteryCount() {
+        return batteryCount;
+    }
+
+    public void setBatteryCount(long batteryCount) {
+        this.batteryCount = batteryCount;
+    }
+}
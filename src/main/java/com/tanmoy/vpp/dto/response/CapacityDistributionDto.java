@@ -0,0 +1,72 @@
+package com.tanmoy.vpp.dto.response;
+
+import java.util.List;
+
+public class CapacityDistributionDto {
+
+    private long minWattCapacity;
+    private long maxWattCapacity;
+    private long p50WattCapacity;
+    private long p90WattCapacity;
+    private long p99WattCapacity;
+    private List<CapacityBucketDto> buckets;
+
+    public CapacityDistributionDto(long minWattCapacity, long maxWattCapacity,
+                                   long p50WattCapacity, long p90WattCapacity, long p99WattCapacity,
+                                   List<CapacityBucketDto> buckets) {
+        this.minWattCapacity = minWattCapacity;
+        this.maxWattCapacity = maxWattCapacity;
+        this.p50WattCapacity = p50WattCapacity;
+        this.p90WattCapacity = p90WattCapacity;
+        this.p99WattCapacity = p99WattCapacity;
+        this.buckets = buckets;
+    }
+
+    public long getMinWattCapacity() {
+        return minWattCapacity;
+    }
+
+    public void setMinWattCapacity(long minWattCapacity) {
+        this.minWattCapacity = minWattCapacity;
+    }
+
+    public long getMaxWattCapacity() {
+        return maxWattCapacity;
+    }
+
+    public void setMaxWattCapacity(long maxWattCapacity) {
+        this.maxWattCapacity = maxWattCapacity;
+    }
+
+    public long getP50WattCapacity() {
+        return p50WattCapacity;
+    }
+
+    public void setP50WattCapacity(long p50WattCapacity) {
+        this.p50WattCapacity = p50WattCapacity;
+    }
+
+    public long getP90WattCapacity() {
+        return p90WattCapacity;
+    }
+
+    public void setP90WattCapacity(long p90WattCapacity) {
+        this.p90WattCapacity = p90WattCapacity;
+    }
+
+    public long getP99WattCapacity() {
+        return p99WattCapacity;
+    }
+
+    public void setP99WattCapacity(long p99WattCapacity) {
+        this.p99WattCapacity = p99WattCapacity;
+    }
+
+    public List<CapacityBucketDto> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(List<CapacityBucketDto> buckets) {
+        this.buckets = buckets;
+    }
+}
@@ -0,0 +1,81 @@
+package com.tanmoy.vpp.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.tanmoy.vpp.ingest.IngestionJob;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IngestionJobResponseDto {
+
+    private UUID jobId;
+    private IngestionJob.Status status;
+    private int batteryCount;
+    private Instant submittedAt;
+    private Instant completedAt;
+    private String error;
+
+    public IngestionJobResponseDto(UUID jobId, IngestionJob.Status status, int batteryCount,
+                                   Instant submittedAt, Instant completedAt, String error) {
+        this.jobId = jobId;
+        this.status = status;
+        this.batteryCount = batteryCount;
+        this.submittedAt = submittedAt;
+        this.completedAt = completedAt;
+        this.error = error;
+    }
+
+    public static IngestionJobResponseDto of(IngestionJob job) {
+        return new IngestionJobResponseDto(job.getId(), job.getStatus(), job.getBatteryCount(),
+                job.getSubmittedAt(), job.getCompletedAt(), job.getError());
+    }
+
+    public UUID getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(UUID jobId) {
+        this.jobId = jobId;
+    }
+
+    public IngestionJob.Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(IngestionJob.Status status) {
+        this.status = status;
+    }
+
+    public int getBatteryCount() {
+        return batteryCount;
+    }
+
+    public void setBatteryCount(int batteryCount) {
+        this.batteryCount = batteryCount;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,64 @@
+package com.tanmoy.vpp.event;
+
+import com.tanmoy.vpp.model.Battery;
+
+import java.util.List;
+
+/**
+ * Published after batteries have been written. Regular inserts carry the saved
+ * batteries; bulk imports, which must not hold their rows in memory, only carry
+ * the postcode range and row count they touched.
+ */
+public class BatteriesSavedEvent {
+
+    private final List<Battery> batteries;
+    private final int minPostcode;
+    private final int maxPostcode;
+    private final long count;
+
+    private BatteriesSavedEvent(List<Battery> batteries, int minPostcode, int maxPostcode, long count) {
+        this.batteries = batteries;
+        this.minPostcode = minPostcode;
+        this.maxPostcode = maxPostcode;
+        this.count = count;
+    }
+
+    public static BatteriesSavedEvent of(List<Battery> batteries) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (Battery battery : batteries) {
+            int postcode = battery.getPostcodeNumeric();
+            min = Math.min(min, postcode);
+            max = Math.max(max, postcode);
+        }
+        return new BatteriesSavedEvent(List.copyOf(batteries), min, max, batteries.size());
+    }
+
+    public static BatteriesSavedEvent bulk(int minPostcode, int maxPostcode, long count) {
+        return new BatteriesSavedEvent(List.of(), minPostcode, maxPostcode, count);
+    }
+
+    /**
+     * Whether the individual saved batteries are available, as opposed to
+     * only the postcode range of a bulk import.
+     */
+    public boolean isDetailed() {
+        return !batteries.isEmpty();
+    }
+
+    public List<Battery> getBatteries() {
+        return batteries;
+    }
+
+    public int getMinPostcode() {
+        return minPostcode;
+    }
+
+    public int getMaxPostcode() {
+        return maxPostcode;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,8 @@
+package com.tanmoy.vpp.exception;
+
+public class IngestionJobNotFoundException extends RuntimeException {
+
+    public IngestionJobNotFoundException(String message) {
+        super(message);
+    }
+}
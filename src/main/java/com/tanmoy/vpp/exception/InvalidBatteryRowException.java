@@ -0,0 +1,20 @@
+package com.tanmoy.vpp.exception;
+
+public class InvalidBatteryRowException extends RuntimeException {
+
+    private final long lineNumber;
+
+    public InvalidBatteryRowException(long lineNumber, String message) {
+        super("Invalid battery at line " + lineNumber + ": " + message);
+        this.lineNumber = lineNumber;
+    }
+
+    public InvalidBatteryRowException(long lineNumber, String message, Throwable cause) {
+        super("Invalid battery at line " + lineNumber + ": " + message, cause);
+        this.lineNumber = lineNumber;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+}
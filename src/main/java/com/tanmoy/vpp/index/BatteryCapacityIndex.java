@@ -0,0 +1,292 @@
+package com.tanmoy.vpp.index;
+
+import com.tanmoy.vpp.event.BatteriesSavedEvent;
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.repository.projection.BatteryCapacityStats;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional in-process read index answering search totals and averages without
+ * a database round trip. It is loaded from {@code batteries} once the
+ * application is ready, merged with every committed {@code saveAll}, and fully
+ * rebuilt after bulk imports and every {@code vpp.search.index.refresh-interval}
+ * to pick up writes made by other instances.
+ *
+ * <p>Committed inserts land in a small sorted delta next to the large base
+ * index, so a commit costs at most {@code COMPACT_SIZE} copies rather than
+ * O(index). Once the delta outgrows that it is folded into the base on the
+ * refresh thread; readers sum base, compacting and delta.
+ *
+ * <p>Rebuilds scan the table without holding the index lock. Each write
+ * transaction holds the read side of {@code commitGate} from just before its
+ * commit until its delta is recorded; a rebuild takes the write side only
+ * while it pins its REPEATABLE READ snapshot. Every delta recorded before that
+ * point is already in the snapshot, and every one recorded after it is not,
+ * so only the latter are replayed onto the rebuilt index.
+ *
+ * <p>While the index is disabled, warming up or rebuilding after a bulk
+ * import, {@link #stats} is empty and callers fall back to the database.
+ */
+@Component
+@Profile("!reactive")
+public class BatteryCapacityIndex {
+
+    private static final Logger logger = LogManager.getLogger(BatteryCapacityIndex.class);
+
+    private static final String LOAD_SQL = "SELECT postcode_numeric, capacity FROM batteries";
+    private static final int LOAD_FETCH_SIZE = 10_000;
+    static final int COMPACT_SIZE = 16_384;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final boolean enabled;
+    private final Duration refreshInterval;
+
+    private final ReentrantReadWriteLock commitGate = new ReentrantReadWriteLock();
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot;
+    private PackedBuffer sinceRebuild;
+    private boolean rebuildStale;
+    private boolean compactionScheduled;
+    private ScheduledExecutorService refresher;
+
+    @Autowired
+    public BatteryCapacityIndex(DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${vpp.search.index.enabled:false}") boolean enabled,
+                                @Value("${vpp.search.index.refresh-interval:10m}") Duration refreshInterval) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(LOAD_FETCH_SIZE);
+        // Not read-only: the snapshot must come from the primary, which the commit gate orders against
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.enabled = enabled;
+        this.refreshInterval = refreshInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "capacity-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::rebuildQuietly, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    public Optional<BatteryCapacityStats> stats(int startPostcode, int endPostcode,
+                                                Integer minCapacity, Integer maxCapacity) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(current.stats(startPostcode, endPostcode, minCapacity, maxCapacity));
+    }
+
+    /**
+     * Enters the commit gate for the committing transaction and records its
+     * batteries once it has completed, leaving the gate only afterwards.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onBatteriesCommitting(BatteriesSavedEvent event) {
+        if (refresher == null) {
+            return;
+        }
+        long[] delta = event.isDetailed() ? pack(event.getBatteries()) : null;
+
+        commitGate.readLock().lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED && delta != null) {
+                        record(delta);
+                    } else if (status != STATUS_ROLLED_BACK) {
+                        // Bulk import, or a commit of unknown outcome: only a full rebuild is exact
+                        invalidate();
+                    }
+                } finally {
+                    commitGate.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    private void record(long[] delta) {
+        synchronized (writeLock) {
+            if (sinceRebuild != null) {
+                for (long value : delta) {
+                    sinceRebuild.add(value);
+                }
+            }
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            snapshot = current.withDelta(current.delta.merge(delta, delta.length));
+            if (!compactionScheduled && snapshot.delta.size() > COMPACT_SIZE) {
+                compactionScheduled = true;
+                refresher.execute(this::compactQuietly);
+            }
+        }
+    }
+
+    private void invalidate() {
+        synchronized (writeLock) {
+            snapshot = null;
+            rebuildStale = sinceRebuild != null;
+        }
+        refresher.execute(this::rebuildQuietly);
+    }
+
+    void rebuild() {
+        logger.info("Rebuild capacity index: START");
+
+        PackedBuffer buffer = new PackedBuffer();
+        snapshotTransaction.executeWithoutResult(status -> {
+            commitGate.writeLock().lock();
+            try {
+                // The first statement pins the REPEATABLE READ snapshot; no commit is in flight now
+                jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                synchronized (writeLock) {
+                    sinceRebuild = new PackedBuffer();
+                    rebuildStale = false;
+                }
+            } finally {
+                commitGate.writeLock().unlock();
+            }
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                buffer.add(CapacityIndex.pack(rs.getInt(1), rs.getInt(2)));
+            });
+        });
+        CapacityIndex base = CapacityIndex.fromPacked(buffer.values, buffer.size);
+
+        synchronized (writeLock) {
+            PackedBuffer committedSince = sinceRebuild;
+            sinceRebuild = null;
+            if (committedSince == null || rebuildStale) {
+                // A bulk import committed after the snapshot; the rebuild it scheduled takes over
+                logger.info("Rebuild capacity index: Size={}: SUPERSEDED", buffer.size);
+                return;
+            }
+            CapacityIndex delta = CapacityIndex.fromPacked(committedSince.values, committedSince.size);
+            snapshot = new Snapshot(base, CapacityIndex.empty(), delta);
+        }
+
+        logger.info("Rebuild capacity index: Size={}: COMPLETE", buffer.size);
+    }
+
+    /** Folds the delta into the base off the commit path; commits during the merge go to a fresh delta. */
+    void compact() {
+        Snapshot frozen;
+        synchronized (writeLock) {
+            compactionScheduled = false;
+            Snapshot current = snapshot;
+            if (current == null || current.delta.size() == 0) {
+                return;
+            }
+            frozen = new Snapshot(current.base, current.delta, CapacityIndex.empty());
+            snapshot = frozen;
+        }
+
+        CapacityIndex merged = frozen.base.merge(frozen.compacting);
+
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (current != null && current.base == frozen.base && current.compacting == frozen.compacting) {
+                snapshot = new Snapshot(merged, CapacityIndex.empty(), current.delta);
+            }
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.error("Failed to rebuild capacity index", e);
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            logger.error("Failed to compact capacity index", e);
+        }
+    }
+
+    private static long[] pack(List<Battery> batteries) {
+        long[] packed = new long[batteries.size()];
+        for (int i = 0; i < packed.length; i++) {
+            Battery battery = batteries.get(i);
+            packed[i] = CapacityIndex.pack(battery.getPostcodeNumeric(), battery.getCapacity());
+        }
+        return packed;
+    }
+
+    /** Base plus the deltas committed since; {@code compacting} is being merged into a new base. */
+    private record Snapshot(CapacityIndex base, CapacityIndex compacting, CapacityIndex delta) {
+
+        Snapshot withDelta(CapacityIndex newDelta) {
+            return new Snapshot(base, compacting, newDelta);
+        }
+
+        CapacityRangeStats stats(int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity) {
+            CapacityRangeStats fromBase = base.stats(startPostcode, endPostcode, minCapacity, maxCapacity);
+            CapacityRangeStats fromCompacting = compacting.stats(startPostcode, endPostcode, minCapacity, maxCapacity);
+            CapacityRangeStats fromDelta = delta.stats(startPostcode, endPostcode, minCapacity, maxCapacity);
+            return new CapacityRangeStats(
+                    fromBase.getBatteryCount() + fromCompacting.getBatteryCount() + fromDelta.getBatteryCount(),
+                    fromBase.getTotalCapacity() + fromCompacting.getTotalCapacity() + fromDelta.getTotalCapacity());
+        }
+    }
+
+    private static final class PackedBuffer {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.tanmoy.vpp.index;
+
+import com.tanmoy.vpp.repository.NameCapacityConsumer;
+import com.tanmoy.vpp.repository.projection.BatteryCapacityStats;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single-pass search aggregation over streamed {@code (name, capacity)} rows:
+ * count, sum, min and max are kept in primitive fields and names are appended
+ * to one array, so nothing is boxed and no per-row objects are created. Sized
+ * with the expected row count, the names array is the only allocation that
+ * grows with the result; without one it starts small and doubles, so the
+ * arrays it outgrows add up to less than the final one. An optional {@link CapacityHistogram} is fed in the
+ * same pass for extended stats.
+ *
+ * <p>Not thread-safe; use one instance per query.
+ */
+public final class CapacityAggregator implements NameCapacityConsumer, BatteryCapacityStats {
+
+    public static final int DEFAULT_EXPECTED_ROWS = 64;
+
+    /** Largest array length the JVM reliably allocates. */
+    private static final int MAX_ROWS = Integer.MAX_VALUE - 8;
+
+    private final CapacityHistogram histogram;
+    private String[] names;
+    private int count;
+    private long totalCapacity;
+    private int minCapacity = Integer.MAX_VALUE;
+    private int maxCapacity = Integer.MIN_VALUE;
+
+    public CapacityAggregator() {
+        this(DEFAULT_EXPECTED_ROWS);
+    }
+
+    public CapacityAggregator(long expectedRows) {
+        this(expectedRows, null);
+    }
+
+    /** {@code histogram} may be null when no distribution is wanted. */
+    public CapacityAggregator(long expectedRows, CapacityHistogram histogram) {
+        this.names = new String[(int) Math.max(1, Math.min(expectedRows, MAX_ROWS))];
+        this.histogram = histogram;
+    }
+
+    @Override
+    public void accept(String name, int capacity) {
+        if (count == names.length) {
+            grow();
+        }
+        names[count++] = name;
+        totalCapacity += capacity;
+        if (capacity < minCapacity) {
+            minCapacity = capacity;
+        }
+        if (capacity > maxCapacity) {
+            maxCapacity = capacity;
+        }
+        if (histogram != null) {
+            histogram.record(capacity);
+        }
+    }
+
+    private void grow() {
+        if (count == MAX_ROWS) {
+            throw new IllegalStateException("Search result exceeds " + MAX_ROWS + " batteries");
+        }
+        names = Arrays.copyOf(names, (int) Math.min(2L * count, MAX_ROWS));
+    }
+
+    /** Names in the order they were accepted; backed by the aggregator's array when it was sized exactly. */
+    public List<String> names() {
+        return Arrays.asList(count == names.length ? names : Arrays.copyOf(names, count));
+    }
+
+    @Override
+    public long getBatteryCount() {
+        return count;
+    }
+
+    @Override
+    public long getTotalCapacity() {
+        return totalCapacity;
+    }
+
+    @Override
+    public double getAverageCapacity() {
+        return count == 0 ? 0.0 : (double) totalCapacity / count;
+    }
+
+    /** Smallest capacity seen, or 0 if no rows were accepted. */
+    public int getMinCapacity() {
+        return count == 0 ? 0 : minCapacity;
+    }
+
+    /** Largest capacity seen, or 0 if no rows were accepted. */
+    public int getMaxCapacity() {
+        return count == 0 ? 0 : maxCapacity;
+    }
+}
@@ -0,0 +1,89 @@
+package com.tanmoy.vpp.index;
+
+import com.tanmoy.vpp.dto.response.CapacityBucketDto;
+import com.tanmoy.vpp.dto.response.CapacityDistributionDto;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.IntCountsHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mergeable capacity distribution sketch for extended search stats: an
+ * HdrHistogram over {@code [0, Integer.MAX_VALUE]} at two significant digits,
+ * so its size (about 13 KB) does not depend on how many batteries are
+ * recorded. Percentiles and bucket counts are accurate to within 1% of the
+ * capacity value; min and max are tracked exactly. Sub-range and shard
+ * sketches are combined with {@link #add(CapacityHistogram)}.
+ *
+ * <p>Not thread-safe; record into one instance per thread and merge after.
+ */
+public final class CapacityHistogram {
+
+    public static final int DEFAULT_BUCKETS = 10;
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final IntCountsHistogram histogram = new IntCountsHistogram(Integer.MAX_VALUE, SIGNIFICANT_DIGITS);
+    private int minCapacity = Integer.MAX_VALUE;
+    private int maxCapacity = Integer.MIN_VALUE;
+
+    public void record(int capacity) {
+        histogram.recordValue(capacity);
+        if (capacity < minCapacity) {
+            minCapacity = capacity;
+        }
+        if (capacity > maxCapacity) {
+            maxCapacity = capacity;
+        }
+    }
+
+    public void add(CapacityHistogram other) {
+        histogram.add(other.histogram);
+        minCapacity = Math.min(minCapacity, other.minCapacity);
+        maxCapacity = Math.max(maxCapacity, other.maxCapacity);
+    }
+
+    public long getCount() {
+        return histogram.getTotalCount();
+    }
+
+    /** Capacity at or below which {@code percentile} percent of the recorded batteries lie. */
+    public long valueAtPercentile(double percentile) {
+        if (getCount() == 0) {
+            return 0;
+        }
+        return Math.max(minCapacity, Math.min(maxCapacity, histogram.getValueAtPercentile(percentile)));
+    }
+
+    public CapacityDistributionDto toDto() {
+        return toDto(DEFAULT_BUCKETS);
+    }
+
+    /**
+     * Percentiles plus {@code bucketCount} equal-width buckets spanning
+     * {@code [min, max]}; fewer when the span is narrower than that.
+     */
+    public CapacityDistributionDto toDto(int bucketCount) {
+        if (getCount() == 0) {
+            return new CapacityDistributionDto(0, 0, 0, 0, 0, List.of());
+        }
+
+        long width = Math.max(1, ((long) maxCapacity - minCapacity + bucketCount) / bucketCount);
+        int buckets = (int) (((long) maxCapacity - minCapacity) / width) + 1;
+        long[] counts = new long[buckets];
+        for (HistogramIterationValue value : histogram.recordedValues()) {
+            long capacity = Math.max(minCapacity, Math.min(maxCapacity, value.getValueIteratedTo()));
+            counts[(int) ((capacity - minCapacity) / width)] += value.getCountAtValueIteratedTo();
+        }
+
+        List<CapacityBucketDto> distribution = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            long from = minCapacity + i * width;
+            distribution.add(new CapacityBucketDto(from, Math.min(maxCapacity, from + width - 1), counts[i]));
+        }
+
+        return new CapacityDistributionDto(minCapacity, maxCapacity,
+                valueAtPercentile(50.0), valueAtPercentile(90.0), valueAtPercentile(99.0), distribution);
+    }
+}
@@ -0,0 +1,151 @@
+package com.tanmoy.vpp.index;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of every battery's postcode and capacity, held in
+ * primitive arrays sorted by postcode (then capacity) with prefix sums over
+ * capacity. Unfiltered range totals are answered with two binary searches;
+ * capacity-filtered queries scan only the matching postcode slice.
+ *
+ * <p>Entries are exchanged as {@code long} values packing the postcode into the
+ * high and the capacity into the low 32 bits, so sorting and merging never box.
+ */
+public final class CapacityIndex {
+
+    private static final CapacityIndex EMPTY = new CapacityIndex(new int[0], new int[0]);
+
+    private final int[] postcodes;
+    private final int[] capacities;
+    private final long[] prefixSums;
+
+    private CapacityIndex(int[] postcodes, int[] capacities) {
+        this.postcodes = postcodes;
+        this.capacities = capacities;
+        this.prefixSums = new long[capacities.length + 1];
+        for (int i = 0; i < capacities.length; i++) {
+            prefixSums[i + 1] = prefixSums[i] + capacities[i];
+        }
+    }
+
+    public static CapacityIndex empty() {
+        return EMPTY;
+    }
+
+    public static long pack(int postcode, int capacity) {
+        return ((long) postcode << 32) | (capacity & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Builds an index from the first {@code size} packed entries. The array is sorted in place.
+     */
+    public static CapacityIndex fromPacked(long[] packed, int size) {
+        Arrays.sort(packed, 0, size);
+        int[] postcodes = new int[size];
+        int[] capacities = new int[size];
+        for (int i = 0; i < size; i++) {
+            postcodes[i] = (int) (packed[i] >>> 32);
+            capacities[i] = (int) packed[i];
+        }
+        return new CapacityIndex(postcodes, capacities);
+    }
+
+    /**
+     * Returns a new index containing this index's entries plus the first
+     * {@code size} packed entries of {@code delta}, which is sorted in place.
+     */
+    public CapacityIndex merge(long[] delta, int size) {
+        if (size == 0) {
+            return this;
+        }
+        Arrays.sort(delta, 0, size);
+
+        int total = postcodes.length + size;
+        int[] mergedPostcodes = new int[total];
+        int[] mergedCapacities = new int[total];
+
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < total; k++) {
+            boolean takeExisting = j >= size
+                    || (i < postcodes.length && pack(postcodes[i], capacities[i]) <= delta[j]);
+            if (takeExisting) {
+                mergedPostcodes[k] = postcodes[i];
+                mergedCapacities[k] = capacities[i];
+                i++;
+            } else {
+                mergedPostcodes[k] = (int) (delta[j] >>> 32);
+                mergedCapacities[k] = (int) delta[j];
+                j++;
+            }
+        }
+        return new CapacityIndex(mergedPostcodes, mergedCapacities);
+    }
+
+    /** Returns a new index containing the entries of both indexes. */
+    public CapacityIndex merge(CapacityIndex other) {
+        long[] packed = new long[other.size()];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = pack(other.postcodes[i], other.capacities[i]);
+        }
+        return merge(packed, packed.length);
+    }
+
+    public int size() {
+        return postcodes.length;
+    }
+
+    public CapacityRangeStats stats(int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity) {
+        int from = lowerBound(startPostcode);
+        int to = upperBound(endPostcode);
+        if (from >= to) {
+            return new CapacityRangeStats(0, 0);
+        }
+        if (minCapacity == null && maxCapacity == null) {
+            return new CapacityRangeStats(to - from, prefixSums[to] - prefixSums[from]);
+        }
+
+        int min = minCapacity == null ? Integer.MIN_VALUE : minCapacity;
+        int max = maxCapacity == null ? Integer.MAX_VALUE : maxCapacity;
+        long count = 0;
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            int capacity = capacities[i];
+            if (capacity >= min && capacity <= max) {
+                count++;
+                sum += capacity;
+            }
+        }
+        return new CapacityRangeStats(count, sum);
+    }
+
+    /** First index whose postcode is {@code >= postcode}. */
+    private int lowerBound(int postcode) {
+        int low = 0;
+        int high = postcodes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (postcodes[mid] < postcode) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** First index whose postcode is {@code > postcode}. */
+    private int upperBound(int postcode) {
+        int low = 0;
+        int high = postcodes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (postcodes[mid] <= postcode) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
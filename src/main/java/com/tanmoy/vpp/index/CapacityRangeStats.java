@@ -0,0 +1,29 @@
+package com.tanmoy.vpp.index;
+
+import com.tanmoy.vpp.repository.projection.BatteryCapacityStats;
+
+public final class CapacityRangeStats implements BatteryCapacityStats {
+
+    private final long batteryCount;
+    private final long totalCapacity;
+
+    public CapacityRangeStats(long batteryCount, long totalCapacity) {
+        this.batteryCount = batteryCount;
+        this.totalCapacity = totalCapacity;
+    }
+
+    @Override
+    public long getBatteryCount() {
+        return batteryCount;
+    }
+
+    @Override
+    public long getTotalCapacity() {
+        return totalCapacity;
+    }
+
+    @Override
+    public double getAverageCapacity() {
+        return batteryCount == 0 ? 0.0 : (double) totalCapacity / batteryCount;
+    }
+}
@@ -0,0 +1,76 @@
+package com.tanmoy.vpp.ingest;
+
+import com.tanmoy.vpp.dto.request.BatteryRequestDto;
+import com.tanmoy.vpp.exception.InvalidBatteryRowException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses {@code name,postcode,capacity} CSV lines (RFC 4180 quoting, one record per line).
+ */
+public final class BatteryCsvParser {
+
+    public static final String HEADER = "name,postcode,capacity";
+
+    private BatteryCsvParser() {}
+
+    public static boolean isHeader(String line) {
+        return HEADER.equalsIgnoreCase(line.replace(" ", ""));
+    }
+
+    public static BatteryRequestDto parse(String line, long lineNumber) {
+        List<String> fields = split(line, lineNumber);
+        if (fields.size() != 3) {
+            throw new InvalidBatteryRowException(lineNumber, "Expected 3 columns (" + HEADER + ") but found " + fields.size());
+        }
+
+        BatteryRequestDto dto = new BatteryRequestDto();
+        dto.setName(fields.get(0));
+        dto.setPostcode(fields.get(1).trim());
+
+        String capacity = fields.get(2).trim();
+        if (!capacity.isEmpty()) {
+            try {
+                dto.setCapacity(Integer.parseInt(capacity));
+            } catch (NumberFormatException e) {
+                throw new InvalidBatteryRowException(lineNumber, "capacity must be a number", e);
+            }
+        }
+        return dto;
+    }
+
+    private static List<String> split(String line, long lineNumber) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new InvalidBatteryRowException(lineNumber, "Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
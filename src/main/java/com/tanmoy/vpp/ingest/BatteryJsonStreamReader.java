@@ -0,0 +1,88 @@
+package com.tanmoy.vpp.ingest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.tanmoy.vpp.dto.request.BatteryRequestDto;
+import com.tanmoy.vpp.exception.InvalidBatteryRowException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Reads a {@code {"batteries": [...]}} payload with the Jackson streaming API,
+ * binding one array element at a time. Only the element currently being
+ * handed to the consumer is ever materialised.
+ */
+@Component
+public class BatteryJsonStreamReader {
+
+    private static final String BATTERIES_FIELD = "batteries";
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader batteryReader;
+
+    @Autowired
+    public BatteryJsonStreamReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.batteryReader = objectMapper.readerFor(BatteryRequestDto.class);
+    }
+
+    /**
+     * Passes each element of the {@code batteries} array to {@code consumer}
+     * together with the line it starts on, and returns the number of elements read.
+     */
+    public long forEach(InputStream inputStream, ObjLongConsumer<BatteryRequestDto> consumer) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Request body must be a JSON object with a batteries array");
+            }
+
+            long count = -1;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!BATTERIES_FIELD.equals(field)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if (value != JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException("batteries must be an array");
+                }
+                count = readArray(parser, consumer);
+            }
+
+            if (count < 0) {
+                throw new IllegalArgumentException("Request body must contain a batteries array");
+            }
+            if (count == 0) {
+                throw new IllegalArgumentException("batteries must not be empty");
+            }
+            return count;
+        } catch (JsonProcessingException e) {
+            long line = e.getLocation() != null ? e.getLocation().getLineNr() : -1;
+            throw new InvalidBatteryRowException(line, "Malformed JSON", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read battery stream", e);
+        }
+    }
+
+    private long readArray(JsonParser parser, ObjLongConsumer<BatteryRequestDto> consumer) throws IOException {
+        long count = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            long line = parser.currentLocation().getLineNr();
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                throw new InvalidBatteryRowException(line, "Each battery must be a JSON object");
+            }
+            consumer.accept(batteryReader.readValue(parser), line);
+            count++;
+        }
+        return count;
+    }
+}
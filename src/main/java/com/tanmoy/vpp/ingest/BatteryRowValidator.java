@@ -0,0 +1,45 @@
+package com.tanmoy.vpp.ingest;
+
+import com.tanmoy.vpp.dto.request.BatteryRequestDto;
+import com.tanmoy.vpp.exception.InvalidBatteryRowException;
+import com.tanmoy.vpp.model.Battery;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Validates a single streamed battery row with the same constraints as
+ * {@link BatteryRequestDto} and converts it to a {@link Battery}, so that the
+ * streaming ingestion paths reject exactly what {@code POST /api/batteries} rejects.
+ */
+@Component
+public class BatteryRowValidator {
+
+    private final Validator validator;
+
+    @Autowired
+    public BatteryRowValidator(Validator validator) {
+        this.validator = validator;
+    }
+
+    public Battery toBattery(BatteryRequestDto dto, long lineNumber) {
+        Set<ConstraintViolation<BatteryRequestDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .collect(Collectors.joining("; "));
+            throw new InvalidBatteryRowException(lineNumber, message);
+        }
+        try {
+            return Battery.of(dto.getName(), dto.getPostcode(), dto.getCapacity());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidBatteryRowException(lineNumber, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.tanmoy.vpp.ingest;
+
+import com.tanmoy.vpp.model.Battery;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Produces the validated batteries of one upload, in upload order.
+ */
+@FunctionalInterface
+public interface BatterySource {
+
+    void forEach(Consumer<Battery> sink) throws IOException;
+}
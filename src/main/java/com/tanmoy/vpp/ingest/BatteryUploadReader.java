@@ -0,0 +1,80 @@
+package com.tanmoy.vpp.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.tanmoy.vpp.dto.request.BatteryRequestDto;
+import com.tanmoy.vpp.exception.InvalidBatteryRowException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiFunction;
+
+/**
+ * Turns an uploaded CSV, NDJSON or JSON array payload into a
+ * {@link BatterySource}. Rows are parsed and validated one at a time as the
+ * source is consumed, so an import never holds the whole payload.
+ */
+@Component
+public class BatteryUploadReader {
+
+    private final BatteryRowValidator rowValidator;
+    private final BatteryJsonStreamReader jsonStreamReader;
+    private final ObjectReader batteryReader;
+
+    @Autowired
+    public BatteryUploadReader(BatteryRowValidator rowValidator,
+                               BatteryJsonStreamReader jsonStreamReader,
+                               ObjectMapper objectMapper) {
+        this.rowValidator = rowValidator;
+        this.jsonStreamReader = jsonStreamReader;
+        this.batteryReader = objectMapper.readerFor(BatteryRequestDto.class);
+    }
+
+    public BatterySource csv(InputStream inputStream) {
+        return lineSource(inputStream, (line, lineNumber) -> {
+            if (lineNumber == 1 && BatteryCsvParser.isHeader(line)) {
+                return null;
+            }
+            return BatteryCsvParser.parse(line, lineNumber);
+        });
+    }
+
+    public BatterySource ndjson(InputStream inputStream) {
+        return lineSource(inputStream, (line, lineNumber) -> {
+            try {
+                return batteryReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                throw new InvalidBatteryRowException(lineNumber, "Malformed JSON", e);
+            }
+        });
+    }
+
+    public BatterySource json(InputStream inputStream) {
+        return sink -> jsonStreamReader.forEach(inputStream,
+                (dto, lineNumber) -> sink.accept(rowValidator.toBattery(dto, lineNumber)));
+    }
+
+    private BatterySource lineSource(InputStream inputStream,
+                                     BiFunction<String, Long, BatteryRequestDto> lineParser) {
+        return sink -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                BatteryRequestDto dto = lineParser.apply(line, lineNumber);
+                if (dto != null) {
+                    sink.accept(rowValidator.toBattery(dto, lineNumber));
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.tanmoy.vpp.ingest;
+
+import com.tanmoy.vpp.model.Battery;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One asynchronously ingested {@code POST /api/batteries/jobs} batch. State is
+ * written by the queue's writer thread and read by status requests, hence the
+ * volatile fields. The batteries themselves are released once the job is done.
+ */
+public class IngestionJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final UUID id;
+    private final int batteryCount;
+    private final Instant submittedAt;
+
+    private volatile List<Battery> batteries;
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant completedAt;
+    private volatile String error;
+
+    public IngestionJob(UUID id, List<Battery> batteries) {
+        this.id = id;
+        this.batteries = batteries;
+        this.batteryCount = batteries.size();
+        this.submittedAt = Instant.now();
+    }
+
+    void markRunning() {
+        status = Status.RUNNING;
+    }
+
+    void markCompleted() {
+        finish(Status.COMPLETED, null);
+    }
+
+    void markFailed(String error) {
+        finish(Status.FAILED, error);
+    }
+
+    private void finish(Status status, String error) {
+        this.error = error;
+        this.completedAt = Instant.now();
+        this.batteries = null;
+        this.status = status;
+    }
+
+    List<Battery> getBatteries() {
+        return batteries;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public int getBatteryCount() {
+        return batteryCount;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
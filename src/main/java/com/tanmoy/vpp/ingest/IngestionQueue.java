@@ -0,0 +1,203 @@
+package com.tanmoy.vpp.ingest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tanmoy.vpp.exception.IngestionQueueFullException;
+import com.tanmoy.vpp.metrics.BatteryMetrics;
+import com.tanmoy.vpp.metrics.BatteryMetrics.IngestFormat;
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.service.BatteryService;
+import com.tanmoy.vpp.util.UuidV7Generator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded in-process queue behind {@code POST /api/batteries/jobs}.
+ *
+ * <p>Requests only validate and enqueue; {@code vpp.ingest.queue.writers}
+ * background threads take whatever jobs are waiting, up to
+ * {@code vpp.ingest.queue.max-coalesced-batteries} batteries, and store them
+ * with a single {@code saveAll}. If a coalesced write fails, its jobs are
+ * retried one by one so a bad batch only fails its own job. When the queue is
+ * full, {@link #submit} rejects instead of blocking the request thread.
+ *
+ * <p>Job status is kept for {@code vpp.ingest.jobs.retention} after the last
+ * update. On shutdown the writers keep draining for up to 30 seconds; jobs
+ * still queued after that are lost.
+ */
+@Component
+@Profile("!reactive")
+public class IngestionQueue {
+
+    private static final Logger logger = LogManager.getLogger(IngestionQueue.class);
+
+    private static final long POLL_MILLIS = 200;
+
+    private final BatteryService batteryService;
+    private final BatteryMetrics batteryMetrics;
+    private final BlockingQueue<IngestionJob> queue;
+    private final Cache<UUID, IngestionJob> jobs;
+    private final int writers;
+    private final int maxCoalescedBatteries;
+
+    private volatile boolean running;
+    private ExecutorService writerPool;
+
+    @Autowired
+    public IngestionQueue(BatteryService batteryService,
+                          BatteryMetrics batteryMetrics,
+                          MeterRegistry meterRegistry,
+                          @Value("${vpp.ingest.queue.capacity:1000}") int capacity,
+                          @Value("${vpp.ingest.queue.writers:2}") int writers,
+                          @Value("${vpp.ingest.queue.max-coalesced-batteries:5000}") int maxCoalescedBatteries,
+                          @Value("${vpp.ingest.jobs.retention:1h}") Duration retention) {
+        this.batteryService = batteryService;
+        this.batteryMetrics = batteryMetrics;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.jobs = Caffeine.newBuilder().expireAfterWrite(retention).build();
+        this.writers = writers;
+        this.maxCoalescedBatteries = maxCoalescedBatteries;
+
+        Gauge.builder("vpp.ingest.queue.size", queue, BlockingQueue::size)
+                .description("Ingestion jobs waiting for a writer")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        AtomicInteger threadCount = new AtomicInteger();
+        writerPool = Executors.newFixedThreadPool(writers, runnable -> {
+            Thread thread = new Thread(runnable, "ingestion-writer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < writers; i++) {
+            writerPool.execute(this::drain);
+        }
+        logger.info("Ingestion queue started: Writers={}, Capacity={}", writers, queue.remainingCapacity());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writerPool != null) {
+            writerPool.shutdown();
+            if (!writerPool.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Ingestion queue stopped with {} jobs pending", queue.size());
+                writerPool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Enqueues the batteries as a new job.
+     *
+     * @throws IngestionQueueFullException if the queue has no free slot
+     */
+    public IngestionJob submit(List<Battery> batteries) {
+        IngestionJob job = new IngestionJob(UuidV7Generator.generate(), batteries);
+        jobs.put(job.getId(), job);
+        if (!queue.offer(job)) {
+            jobs.invalidate(job.getId());
+            throw new IngestionQueueFullException("Ingestion queue is full, retry later");
+        }
+        return job;
+    }
+
+    public Optional<IngestionJob> find(UUID jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    private void drain() {
+        List<IngestionJob> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                IngestionJob first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                int size = first.getBatteryCount();
+                IngestionJob next;
+                while (size < maxCoalescedBatteries && (next = queue.poll()) != null) {
+                    batch.add(next);
+                    size += next.getBatteryCount();
+                }
+                write(batch, size);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<IngestionJob> batch, int size) {
+        long startNanos = System.nanoTime();
+        List<Battery> batteries = new ArrayList<>(size);
+        for (IngestionJob job : batch) {
+            job.markRunning();
+            batteries.addAll(job.getBatteries());
+        }
+
+        logger.info("Writing ingestion jobs: Jobs={}, Size={}: START", batch.size(), size);
+        try {
+            batteryService.saveAll(batteries);
+            batch.forEach(this::complete);
+            batteryMetrics.recordIngest(IngestFormat.ASYNC, size, startNanos);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+            } else {
+                logger.warn("Coalesced write of {} jobs failed, retrying individually", batch.size(), e);
+                batch.forEach(this::writeSingle);
+            }
+        }
+        logger.info("Writing ingestion jobs: Jobs={}, Size={}: COMPLETE", batch.size(), size);
+    }
+
+    private void writeSingle(IngestionJob job) {
+        long startNanos = System.nanoTime();
+        try {
+            batteryService.saveAll(job.getBatteries());
+            complete(job);
+            batteryMetrics.recordIngest(IngestFormat.ASYNC, job.getBatteryCount(), startNanos);
+        } catch (RuntimeException e) {
+            fail(job, e);
+        }
+    }
+
+    private void complete(IngestionJob job) {
+        job.markCompleted();
+        jobs.put(job.getId(), job);
+    }
+
+    private void fail(IngestionJob job, RuntimeException e) {
+        logger.error("Ingestion job failed: JobId={}", job.getId(), e);
+        job.markFailed(e.getMessage());
+        jobs.put(job.getId(), job);
+    }
+}
@@ -0,0 +1,52 @@
+package com.tanmoy.vpp.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.ThreadContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides once per request whether its INFO logs are kept, and exposes the
+ * decision as the {@code logSampled} thread-context key. {@code log4j2-prod.xml}
+ * filters on that key, so all lines of a sampled request are logged together.
+ * Threads outside a request carry no key and are not sampled. With the
+ * default rate of 1 every request is sampled.
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLogSamplingFilter extends OncePerRequestFilter {
+
+    public static final String SAMPLED_KEY = "logSampled";
+
+    private final double sampleRate;
+
+    @Autowired
+    public RequestLogSamplingFilter(@Value("${vpp.logging.request-sample-rate:1.0}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        ThreadContext.put(SAMPLED_KEY, sampled ? "true" : "false");
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ThreadContext.remove(SAMPLED_KEY);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.tanmoy.vpp.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application meters for the search and ingestion hot paths.
+ *
+ * <p>Every tag combination is registered up front so recording is a lookup in
+ * a small array plus a lock-free histogram update; nothing is allocated or
+ * looked up in the registry per request. Latencies publish Prometheus
+ * histogram buckets rather than client-side percentiles, which keeps the
+ * recording cost flat and lets percentiles be aggregated across instances.
+ *
+ * <ul>
+ *   <li>{@code vpp.search.latency} - timer, tags {@code endpoint}, {@code capacity_filter}</li>
+ *   <li>{@code vpp.search.matched} - batteries matched per search, same tags</li>
+ *   <li>{@code vpp.insert.batch.size} - batteries per {@code POST /api/batteries}</li>
+ *   <li>{@code vpp.ingest.rows} - counter of stored batteries, tag {@code format}
+ *       ({@code api}, {@code csv}, {@code ndjson}, {@code json}, {@code async});
+ *       {@code rate()} of it is rows/second ingested</li>
+ *   <li>{@code vpp.ingest.latency} - timer per insert or import request, tag {@code format}</li>
+ *   <li>{@code vpp.insert.group.requests} / {@code vpp.insert.group.rows} - insert requests and
+ *       batteries merged into each group-commit transaction</li>
+ * </ul>
+ */
+@Component
+public class BatteryMetrics {
+
+    public enum SearchEndpoint {
+        SEARCH("search"),
+        SEARCH_PAGE("search_page"),
+        SEARCH_STATS("search_stats"),
+        SEARCH_STREAM("search_stream");
+
+        private final String tag;
+
+        SearchEndpoint(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum IngestFormat {
+        API("api"),
+        CSV("csv"),
+        NDJSON("ndjson"),
+        JSON("json"),
+        ASYNC("async");
+
+        private final String tag;
+
+        IngestFormat(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Map<SearchEndpoint, Timer[]> searchLatency = new EnumMap<>(SearchEndpoint.class);
+    private final Map<SearchEndpoint, DistributionSummary[]> searchMatched = new EnumMap<>(SearchEndpoint.class);
+    private final Map<IngestFormat, Counter> ingestRows = new EnumMap<>(IngestFormat.class);
+    private final Map<IngestFormat, Timer> ingestLatency = new EnumMap<>(IngestFormat.class);
+    private final DistributionSummary insertBatchSize;
+    private final DistributionSummary groupRequests;
+    private final DistributionSummary groupRows;
+
+    @Autowired
+    public BatteryMetrics(MeterRegistry meterRegistry) {
+        for (SearchEndpoint endpoint : SearchEndpoint.values()) {
+            Timer[] timers = new Timer[2];
+            DistributionSummary[] summaries = new DistributionSummary[2];
+            for (int filtered = 0; filtered < 2; filtered++) {
+                String capacityFilter = Boolean.toString(filtered == 1);
+                timers[filtered] = Timer.builder("vpp.search.latency")
+                        .description("Search request latency")
+                        .tag("endpoint", endpoint.tag)
+                        .tag("capacity_filter", capacityFilter)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry);
+                summaries[filtered] = DistributionSummary.builder("vpp.search.matched")
+                        .description("Batteries matched per search")
+                        .baseUnit("batteries")
+                        .tag("endpoint", endpoint.tag)
+                        .tag("capacity_filter", capacityFilter)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry);
+            }
+            searchLatency.put(endpoint, timers);
+            searchMatched.put(endpoint, summaries);
+        }
+
+        for (IngestFormat format : IngestFormat.values()) {
+            ingestRows.put(format, Counter.builder("vpp.ingest.rows")
+                    .description("Batteries stored")
+                    .baseUnit("batteries")
+                    .tag("format", format.tag)
+                    .register(meterRegistry));
+            ingestLatency.put(format, Timer.builder("vpp.ingest.latency")
+                    .description("Insert or import request latency")
+                    .tag("format", format.tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+
+        this.insertBatchSize = DistributionSummary.builder("vpp.insert.batch.size")
+                .description("Batteries per insert request")
+                .baseUnit("batteries")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.groupRequests = DistributionSummary.builder("vpp.insert.group.requests")
+                .description("Insert requests per group-commit transaction")
+                .baseUnit("requests")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.groupRows = DistributionSummary.builder("vpp.insert.group.rows")
+                .description("Batteries per group-commit transaction")
+                .baseUnit("batteries")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public void recordSearch(SearchEndpoint endpoint, boolean capacityFilter, long startNanos, long matched) {
+        int filtered = capacityFilter ? 1 : 0;
+        searchLatency.get(endpoint)[filtered].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        searchMatched.get(endpoint)[filtered].record(matched);
+    }
+
+    public void recordInsert(int batchSize, long startNanos) {
+        insertBatchSize.record(batchSize);
+        recordIngest(IngestFormat.API, batchSize, startNanos);
+    }
+
+    public void recordGroupCommit(int requests, int rows) {
+        groupRequests.record(requests);
+        groupRows.record(rows);
+    }
+
+    public void recordIngest(IngestFormat format, long rows, long startNanos) {
+        ingestLatency.get(format).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        ingestRows.get(format).increment(rows);
+    }
+}
@@ -0,0 +1,56 @@
+package com.tanmoy.vpp.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.Interceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times Hibernate flushes (explicit and auto-flush) as {@code vpp.jpa.flush}.
+ *
+ * <p>Registered as the session-factory scoped interceptor, so one instance
+ * sees every session. A flush runs start to end on one thread, so the start
+ * time is kept in a thread local.
+ */
+@Component
+@Profile("!reactive")
+public class JpaFlushMetrics implements Interceptor, HibernatePropertiesCustomizer {
+
+    private final Timer flushTimer;
+    private final ThreadLocal<long[]> flushStart = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Autowired
+    public JpaFlushMetrics(MeterRegistry meterRegistry) {
+        this.flushTimer = Timer.builder("vpp.jpa.flush")
+                .description("Hibernate session flush time")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.INTERCEPTOR, this);
+    }
+
+    @Override
+    public void preFlush(Iterator<Object> entities) {
+        flushStart.get()[0] = System.nanoTime();
+    }
+
+    @Override
+    public void postFlush(Iterator<Object> entities) {
+        long started = flushStart.get()[0];
+        if (started != 0) {
+            flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            flushStart.get()[0] = 0;
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package com.tanmoy.vpp.model;
 
+import com.tanmoy.vpp.util.UuidV7Generator;
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
 @Table(name = "batteries")
-public class Battery {
+public class Battery implements Persistable<UUID> {
 
     @Id
-    @GeneratedValue
     @Column(name = "id", nullable = false, updatable = false)
     private UUID id;
 
@@ -25,14 +29,25 @@ public class Battery {
     @Column(name = "postcode_numeric", nullable = false)
     private Integer postcodeNumeric;
 
+    /**
+     * Ids are assigned client-side, so Spring Data cannot tell new entities
+     * apart by a null id. Tracking it here lets {@code saveAll} call
+     * {@code persist} directly instead of issuing a SELECT per row via
+     * {@code merge}, which keeps inserts eligible for JDBC batching.
+     */
+    @Transient
+    private boolean isNew = true;
+
     public Battery() {}
 
     private Battery(String name, String postcode, int capacity) {
+        this.id = UuidV7Generator.generate();
         this.name = name;
         this.capacity = capacity;
         setPostcode(postcode);
     }
 
+    @Override
     public UUID getId() {
         return id;
     }
@@ -77,7 +92,37 @@ public class Battery {
         }
     }
 
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PrePersist
+    void assignIdIfMissing() {
+        if (id == null) {
+            id = UuidV7Generator.generate();
+        }
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
     public static Battery of(String name, String postcode, int capacity) {
         return new Battery(name, postcode, capacity);
     }
+
+    /**
+     * A copy of {@code batteries} in ascending postcode order. Every writer
+     * that issues more than one INSERT per transaction uses this order, so
+     * concurrent transactions take the {@code postcode_capacity_rollup} row
+     * locks in the same order and cannot deadlock on them.
+     */
+    public static List<Battery> inPostcodeOrder(List<Battery> batteries) {
+        List<Battery> ordered = new ArrayList<>(batteries);
+        ordered.sort(Comparator.comparingInt(Battery::getPostcodeNumeric));
+        return ordered;
+    }
 }
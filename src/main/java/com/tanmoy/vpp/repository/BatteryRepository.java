@@ -1,6 +1,8 @@
 package com.tanmoy.vpp.repository;
 
 import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.repository.projection.BatteryCapacityStats;
+import com.tanmoy.vpp.repository.projection.BatteryNameKey;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,7 +10,7 @@ import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.UUID;
 
-public interface BatteryRepository extends JpaRepository<Battery, UUID> {
+public interface BatteryRepository extends JpaRepository<Battery, UUID>, BatteryRepositoryCustom {
 
     @Query("""
         SELECT b FROM Battery b
@@ -21,5 +23,87 @@ public interface BatteryRepository extends JpaRepository<Battery, UUID> {
                                                   @Param("minCapacity") Integer minCapacity,
                                                   @Param("maxCapacity") Integer maxCapacity);
 
+    @Query("""
+        SELECT COUNT(b) AS batteryCount,
+               COALESCE(SUM(b.capacity), 0) AS totalCapacity,
+               COALESCE(AVG(b.capacity), 0.0) AS averageCapacity
+        FROM Battery b
+        WHERE b.postcodeNumeric BETWEEN :startPostcode AND :endPostcode
+        AND (:minCapacity IS NULL OR b.capacity >= :minCapacity)
+        AND (:maxCapacity IS NULL OR b.capacity <= :maxCapacity)
+    """)
+    BatteryCapacityStats aggregateCapacityInRange(@Param("startPostcode") int startPostcode,
+                                                  @Param("endPostcode") int endPostcode,
+                                                  @Param("minCapacity") Integer minCapacity,
+                                                  @Param("maxCapacity") Integer maxCapacity);
+
+    /**
+     * Unfiltered range stats from {@code postcode_capacity_rollup}, which
+     * triggers on {@code batteries} keep up to date: one row per postcode
+     * instead of one per battery.
+     */
+    @Query(value = """
+        SELECT COALESCE(SUM(r.battery_count), 0) AS batteryCount,
+               COALESCE(SUM(r.capacity_sum), 0) AS totalCapacity,
+               COALESCE(CAST(SUM(r.capacity_sum) AS DOUBLE PRECISION) / NULLIF(SUM(r.battery_count), 0), 0.0)
+                   AS averageCapacity
+        FROM postcode_capacity_rollup r
+        WHERE r.postcode_numeric BETWEEN :startPostcode AND :endPostcode
+    """, nativeQuery = true)
+    BatteryCapacityStats aggregateRollupInRange(@Param("startPostcode") int startPostcode,
+                                                @Param("endPostcode") int endPostcode);
+
+    /**
+     * Last postcode of each of up to {@code parts} consecutive slices of the
+     * range holding about equal battery counts, from the running total over
+     * {@code postcode_capacity_rollup}. A postcode is never split, so a slice
+     * with one very large postcode absorbs its neighbours and fewer
+     * boundaries come back.
+     */
+    @Query(value = """
+        SELECT MAX(r.postcode_numeric) FROM (
+            SELECT postcode_numeric,
+                   SUM(battery_count) OVER (ORDER BY postcode_numeric) AS running,
+                   SUM(battery_count) OVER () AS total
+            FROM postcode_capacity_rollup
+            WHERE postcode_numeric BETWEEN :startPostcode AND :endPostcode
+        ) r
+        GROUP BY CEIL(r.running * :parts / CAST(r.total AS NUMERIC))
+        ORDER BY 1
+    """, nativeQuery = true)
+    List<Integer> findRowBalancedSplitPoints(@Param("startPostcode") int startPostcode,
+                                             @Param("endPostcode") int endPostcode,
+                                             @Param("parts") int parts);
+
+    @Query(value = """
+        SELECT b.id AS id, b.name AS name FROM batteries b
+        WHERE b.postcode_numeric BETWEEN :startPostcode AND :endPostcode
+        AND (CAST(:minCapacity AS INTEGER) IS NULL OR b.capacity >= CAST(:minCapacity AS INTEGER))
+        AND (CAST(:maxCapacity AS INTEGER) IS NULL OR b.capacity <= CAST(:maxCapacity AS INTEGER))
+        ORDER BY b.name COLLATE "C", b.id
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<BatteryNameKey> findFirstNamePage(@Param("startPostcode") int startPostcode,
+                                           @Param("endPostcode") int endPostcode,
+                                           @Param("minCapacity") Integer minCapacity,
+                                           @Param("maxCapacity") Integer maxCapacity,
+                                           @Param("limit") int limit);
+
+    @Query(value = """
+        SELECT b.id AS id, b.name AS name FROM batteries b
+        WHERE b.postcode_numeric BETWEEN :startPostcode AND :endPostcode
+        AND (CAST(:minCapacity AS INTEGER) IS NULL OR b.capacity >= CAST(:minCapacity AS INTEGER))
+        AND (CAST(:maxCapacity AS INTEGER) IS NULL OR b.capacity <= CAST(:maxCapacity AS INTEGER))
+        AND (b.name COLLATE "C", b.id) > (CAST(:afterName AS VARCHAR) COLLATE "C", :afterId)
+        ORDER BY b.name COLLATE "C", b.id
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<BatteryNameKey> findNamePageAfter(@Param("startPostcode") int startPostcode,
+                                           @Param("endPostcode") int endPostcode,
+                                           @Param("minCapacity") Integer minCapacity,
+                                           @Param("maxCapacity") Integer maxCapacity,
+                                           @Param("afterName") String afterName,
+                                           @Param("afterId") UUID afterId,
+                                           @Param("limit") int limit);
 
 }
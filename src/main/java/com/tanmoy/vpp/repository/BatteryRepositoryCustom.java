@@ -0,0 +1,26 @@
+package com.tanmoy.vpp.repository;
+
+public interface BatteryRepositoryCustom {
+
+    /**
+     * Answered by an index-only scan of {@code idx_postcode_capacity_name};
+     * {@code BatterySearchPlanTest} guards the plan.
+     */
+    String NAMES_WITH_CAPACITY_IN_RANGE_SQL = """
+        SELECT b.name, b.capacity FROM batteries b
+        WHERE b.postcode_numeric BETWEEN :startPostcode AND :endPostcode
+        AND (CAST(:minCapacity AS INTEGER) IS NULL OR b.capacity >= CAST(:minCapacity AS INTEGER))
+        AND (CAST(:maxCapacity AS INTEGER) IS NULL OR b.capacity <= CAST(:maxCapacity AS INTEGER))
+        ORDER BY b.name COLLATE "C"
+    """;
+
+    /**
+     * Streams the name and capacity of every matching battery, ordered by name
+     * with the "C" collation, i.e. by code point ({@link com.tanmoy.vpp.util.NameOrder}),
+     * through a forward-only server-side cursor. Must be called inside a
+     * transaction, otherwise the driver materialises the whole result.
+     */
+    void streamNamesInRangeOrderByName(int startPostcode, int endPostcode,
+                                       Integer minCapacity, Integer maxCapacity,
+                                       NameCapacityConsumer consumer);
+}
@@ -0,0 +1,38 @@
+package com.tanmoy.vpp.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Types;
+
+public class BatteryRepositoryCustomImpl implements BatteryRepositoryCustom {
+
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    @Autowired
+    public BatteryRepositoryCustomImpl(DataSource dataSource,
+                                       @Value("${vpp.search.stream.fetch-size:1000}") int fetchSize) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public void streamNamesInRangeOrderByName(int startPostcode, int endPostcode,
+                                              Integer minCapacity, Integer maxCapacity,
+                                              NameCapacityConsumer consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("startPostcode", startPostcode)
+                .addValue("endPostcode", endPostcode)
+                .addValue("minCapacity", minCapacity, Types.INTEGER)
+                .addValue("maxCapacity", maxCapacity, Types.INTEGER);
+        streamingJdbcTemplate.query(NAMES_WITH_CAPACITY_IN_RANGE_SQL, params,
+                rs -> {
+                    consumer.accept(rs.getString(1), rs.getInt(2));
+                });
+    }
+}
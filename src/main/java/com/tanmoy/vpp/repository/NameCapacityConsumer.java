@@ -0,0 +1,10 @@
+package com.tanmoy.vpp.repository;
+
+/**
+ * Receives one streamed search row at a time, with the capacity kept primitive.
+ */
+@FunctionalInterface
+public interface NameCapacityConsumer {
+
+    void accept(String name, int capacity);
+}
@@ -0,0 +1,94 @@
+package com.tanmoy.vpp.repository;
+
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.repository.projection.BatteryNameCapacity;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking access to the {@code batteries} table for the {@code reactive}
+ * profile. Search results are read through a portal with
+ * {@code vpp.search.stream.fetch-size} rows per round trip, so the database is
+ * only asked for more rows as the subscriber requests them.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveBatteryRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO batteries (id, name, postcode, capacity, postcode_numeric) VALUES ($1, $2, $3, $4, $5)";
+
+    private static final String FIND_NAMES_SQL = """
+        SELECT b.name, b.capacity FROM batteries b
+        WHERE b.postcode_numeric BETWEEN :startPostcode AND :endPostcode
+        AND (CAST(:minCapacity AS INTEGER) IS NULL OR b.capacity >= CAST(:minCapacity AS INTEGER))
+        AND (CAST(:maxCapacity AS INTEGER) IS NULL OR b.capacity <= CAST(:maxCapacity AS INTEGER))
+        ORDER BY b.name COLLATE "C"
+    """;
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    @Autowired
+    public ReactiveBatteryRepository(DatabaseClient databaseClient,
+                                     @Value("${vpp.search.stream.fetch-size:1000}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Inserts all batteries as one batched statement, in postcode order, and
+     * emits the number of rows written.
+     */
+    public Mono<Long> insertAll(List<Battery> unordered) {
+        if (unordered.isEmpty()) {
+            return Mono.just(0L);
+        }
+        List<Battery> batteries = Battery.inPostcodeOrder(unordered);
+        return databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(INSERT_SQL);
+                    for (int i = 0; i < batteries.size(); i++) {
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        Battery battery = batteries.get(i);
+                        statement.bind(0, battery.getId())
+                                .bind(1, battery.getName())
+                                .bind(2, battery.getPostcode())
+                                .bind(3, battery.getCapacity())
+                                .bind(4, battery.getPostcodeNumeric());
+                    }
+                    return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+                })
+                .reduce(0L, Long::sum);
+    }
+
+    public Flux<BatteryNameCapacity> findNamesInRangeOrderByName(int startPostcode, int endPostcode,
+                                                                 Integer minCapacity, Integer maxCapacity) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(FIND_NAMES_SQL)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .bind("startPostcode", startPostcode)
+                .bind("endPostcode", endPostcode);
+        spec = bindNullable(spec, "minCapacity", minCapacity);
+        spec = bindNullable(spec, "maxCapacity", maxCapacity);
+
+        return spec.map((row, metadata) -> new BatteryNameCapacity(
+                        row.get("name", String.class),
+                        row.get("capacity", Integer.class)))
+                .all();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                  String name, Integer value) {
+        return value == null ? spec.bindNull(name, Integer.class) : spec.bind(name, value);
+    }
+}
@@ -0,0 +1,14 @@
+package com.tanmoy.vpp.repository.projection;
+
+/**
+ * Aggregate capacity figures for a postcode range, computed by the database
+ * so that no {@code Battery} entities have to be hydrated for a search.
+ */
+public interface BatteryCapacityStats {
+
+    long getBatteryCount();
+
+    long getTotalCapacity();
+
+    double getAverageCapacity();
+}
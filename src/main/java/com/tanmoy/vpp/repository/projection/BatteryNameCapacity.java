@@ -0,0 +1,4 @@
+package com.tanmoy.vpp.repository.projection;
+
+public record BatteryNameCapacity(String name, int capacity) {
+}
@@ -0,0 +1,13 @@
+package com.tanmoy.vpp.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * The keyset used to page through search results ordered by name, with the id breaking ties.
+ */
+public interface BatteryNameKey {
+
+    UUID getId();
+
+    String getName();
+}
@@ -0,0 +1,12 @@
+package com.tanmoy.vpp.service;
+
+import java.io.InputStream;
+
+public interface BatteryImportService {
+
+    long importCsv(InputStream inputStream);
+
+    long importNdjson(InputStream inputStream);
+
+    long importJson(InputStream inputStream);
+}
@@ -1,9 +1,12 @@
 package com.tanmoy.vpp.service;
 
+import com.tanmoy.vpp.dto.response.BatterySearchPageResponseDto;
 import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import com.tanmoy.vpp.dto.response.BatterySearchSummaryDto;
 import com.tanmoy.vpp.model.Battery;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BatteryService {
 
@@ -11,4 +14,32 @@ public interface BatteryService {
 
     BatterySearchResponseDto getBatteriesByPostcodeRange(
             int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity);
+
+    /**
+     * Same as {@link #getBatteriesByPostcodeRange} plus p50/p90/p99 capacity
+     * and a bucketed distribution, computed in the same pass from a
+     * fixed-size, mergeable histogram.
+     */
+    BatterySearchResponseDto getBatteriesWithDistributionByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity);
+
+    BatterySearchPageResponseDto getBatteryPageByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity,
+            int pageSize, String cursor);
+
+    /**
+     * Count, total and average capacity only, without names. Unfiltered ranges
+     * are summed from the per-postcode rollup; capacity-filtered ranges use
+     * the same detailed path as the full search.
+     */
+    BatterySearchSummaryDto getBatteryStatsByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity);
+
+    /**
+     * Passes every matching battery name, in name order, to {@code nameConsumer}
+     * as it is read from the database, and returns the stats over all of them.
+     */
+    BatterySearchSummaryDto streamBatteriesByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity,
+            Consumer<String> nameConsumer);
 }
@@ -0,0 +1,27 @@
+package com.tanmoy.vpp.service;
+
+import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import com.tanmoy.vpp.model.Battery;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link BatteryService}, active with the {@code reactive} profile.
+ */
+public interface ReactiveBatteryService {
+
+    Mono<Long> saveAll(List<Battery> batteries);
+
+    Mono<BatterySearchResponseDto> getBatteriesByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity);
+
+    /**
+     * Emits one {@code BatteryNameDto} per matching battery, in name order, as
+     * rows arrive from the database, followed by a single
+     * {@code BatterySearchSummaryDto} with the stats over all of them.
+     */
+    Flux<Object> streamBatteriesByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity);
+}
@@ -0,0 +1,98 @@
+package com.tanmoy.vpp.service.impl;
+
+import com.tanmoy.vpp.model.Battery;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * One {@code COPY batteries FROM STDIN} on a connection, fed one battery at a
+ * time and sent to the server in fixed-size buffers.
+ */
+final class BatteryCopyStream {
+
+    private static final Logger logger = LogManager.getLogger(BatteryCopyStream.class);
+
+    private static final String COPY_SQL =
+            "COPY batteries (id, name, postcode, capacity, postcode_numeric) FROM STDIN WITH (FORMAT csv)";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String COPY_FAILED = "Failed to copy batteries into the database";
+
+    private static final SQLStateSQLExceptionTranslator EXCEPTION_TRANSLATOR = new SQLStateSQLExceptionTranslator();
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(BUFFER_SIZE + 512);
+
+    private BatteryCopyStream(CopyIn copyIn) {
+        this.copyIn = copyIn;
+    }
+
+    static BatteryCopyStream open(Connection connection) throws SQLException {
+        return new BatteryCopyStream(connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL));
+    }
+
+    void write(Battery battery) {
+        buffer.append(battery.getId()).append(',')
+                .append('"').append(battery.getName().replace("\"", "\"\"")).append('"').append(',')
+                .append(battery.getPostcode()).append(',')
+                .append(battery.getCapacity()).append(',')
+                .append(battery.getPostcodeNumeric()).append('\n');
+        if (buffer.length() >= BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    /** Sends the remaining rows and ends the COPY, returning the number of rows copied. */
+    long finish() throws SQLException {
+        flush();
+        return copyIn.endCopy();
+    }
+
+    /** Aborts the COPY unless it has already ended. */
+    void cancelIfActive() {
+        if (!copyIn.isActive()) {
+            return;
+        }
+        try {
+            copyIn.cancelCopy();
+        } catch (SQLException e) {
+            logger.warn("Failed to cancel battery import copy", e);
+        }
+    }
+
+    private void flush() {
+        if (buffer.length() == 0) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+        } catch (SQLException e) {
+            throw copyFailed(e);
+        }
+        buffer.setLength(0);
+    }
+
+    /**
+     * Row data the server rejected inside the COPY (e.g. a value too long for
+     * its column) becomes a {@link DataIntegrityViolationException}, which is
+     * reported as a bad request; any other failure stays a server error.
+     */
+    static RuntimeException copyFailed(SQLException e) {
+        DataAccessException translated = EXCEPTION_TRANSLATOR.translate("Copy batteries", COPY_SQL, e);
+        if (translated instanceof DataIntegrityViolationException) {
+            return translated;
+        }
+        return new IllegalStateException(COPY_FAILED, e);
+    }
+}
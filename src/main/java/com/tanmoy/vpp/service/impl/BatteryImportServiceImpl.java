@@ -0,0 +1,127 @@
+package com.tanmoy.vpp.service.impl;
+
+import com.tanmoy.vpp.event.BatteriesSavedEvent;
+import com.tanmoy.vpp.ingest.BatterySource;
+import com.tanmoy.vpp.ingest.BatteryUploadReader;
+import com.tanmoy.vpp.service.BatteryImportService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Streams uploaded batteries into the database without binding the whole
+ * payload. CSV and NDJSON rows, and JSON array payloads parsed element by
+ * element, all go through one PostgreSQL {@code COPY} in fixed-size buffers,
+ * so memory use does not grow with the upload, and each import runs in one
+ * transaction so a single invalid row aborts it.
+ */
+@Service
+@Profile("!reactive")
+public class BatteryImportServiceImpl implements BatteryImportService {
+
+    private static final Logger logger = LogManager.getLogger(BatteryImportServiceImpl.class);
+
+    private final DataSource dataSource;
+    private final BatteryUploadReader uploadReader;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public BatteryImportServiceImpl(DataSource dataSource,
+                                    BatteryUploadReader uploadReader,
+                                    ApplicationEventPublisher eventPublisher) {
+        this.dataSource = dataSource;
+        this.uploadReader = uploadReader;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Transactional
+    public long importCsv(InputStream inputStream) {
+        return copyIn(uploadReader.csv(inputStream));
+    }
+
+    @Override
+    @Transactional
+    public long importNdjson(InputStream inputStream) {
+        return copyIn(uploadReader.ndjson(inputStream));
+    }
+
+    @Override
+    @Transactional
+    public long importJson(InputStream inputStream) {
+        return copyIn(uploadReader.json(inputStream));
+    }
+
+    /**
+     * Streams every battery from {@code source} through one {@code COPY}.
+     * Being a single statement, the rollup trigger updates all imported
+     * postcodes in one pass in postcode order, the same lock order the
+     * batched writers use.
+     */
+    private long copyIn(BatterySource source) {
+
+        logger.info("Import batteries: START");
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        BatteryCopyStream copyStream = null;
+        try {
+            BatteryCopyStream copy = BatteryCopyStream.open(connection);
+            copyStream = copy;
+
+            PostcodeRange range = new PostcodeRange();
+            source.forEach(battery -> {
+                range.include(battery.getPostcodeNumeric());
+                copy.write(battery);
+            });
+
+            long rows = copy.finish();
+            range.publish(eventPublisher, rows);
+
+            logger.info("Import batteries: Rows={}: COMPLETE", rows);
+
+            return rows;
+        } catch (SQLException e) {
+            throw BatteryCopyStream.copyFailed(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read battery import stream", e);
+        } finally {
+            if (copyStream != null) {
+                copyStream.cancelIfActive();
+            }
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Tracks the postcode span of an import so listeners can react to it
+     * without the import holding on to its rows.
+     */
+    private static final class PostcodeRange {
+
+        private int min = Integer.MAX_VALUE;
+        private int max = Integer.MIN_VALUE;
+
+        void include(int postcode) {
+            min = Math.min(min, postcode);
+            max = Math.max(max, postcode);
+        }
+
+        void publish(ApplicationEventPublisher eventPublisher, long rows) {
+            if (rows > 0) {
+                eventPublisher.publishEvent(BatteriesSavedEvent.bulk(min, max, rows));
+            }
+        }
+    }
+}
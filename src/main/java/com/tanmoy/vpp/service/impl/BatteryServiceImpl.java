@@ -1,29 +1,50 @@
 package com.tanmoy.vpp.service.impl;
 
+import com.tanmoy.vpp.dto.response.BatterySearchPageResponseDto;
 import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
-import com.tanmoy.vpp.exception.InvalidRangeException;
+import com.tanmoy.vpp.dto.response.BatterySearchSummaryDto;
+import com.tanmoy.vpp.event.BatteriesSavedEvent;
+import com.tanmoy.vpp.index.BatteryCapacityIndex;
+import com.tanmoy.vpp.index.CapacityAggregator;
+import com.tanmoy.vpp.index.CapacityHistogram;
 import com.tanmoy.vpp.model.Battery;
 import com.tanmoy.vpp.repository.BatteryRepository;
+import com.tanmoy.vpp.repository.projection.BatteryCapacityStats;
+import com.tanmoy.vpp.repository.projection.BatteryNameKey;
 import com.tanmoy.vpp.service.BatteryService;
-import jakarta.transaction.Transactional;
+import com.tanmoy.vpp.util.PostcodeRangeValidator;
+import com.tanmoy.vpp.util.SearchCursor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Service
+@Profile("!reactive")
 public class BatteryServiceImpl implements BatteryService {
 
     private static final Logger logger = LogManager.getLogger(BatteryServiceImpl.class);
 
+    static final int MAX_PAGE_SIZE = 1000;
+
     private final BatteryRepository batteryRepository;
+    private final BatteryCapacityIndex capacityIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public BatteryServiceImpl(BatteryRepository batteryRepository) {
+    public BatteryServiceImpl(BatteryRepository batteryRepository,
+                              BatteryCapacityIndex capacityIndex,
+                              ApplicationEventPublisher eventPublisher) {
         this.batteryRepository = batteryRepository;
+        this.capacityIndex = capacityIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -32,34 +53,206 @@ public class BatteryServiceImpl implements BatteryService {
 
         logger.info("Saving batteries: Size={}: START", batteries.size());
 
-        batteryRepository.saveAll(batteries);
+        batteryRepository.saveAll(Battery.inPostcodeOrder(batteries));
+
+        if (!batteries.isEmpty()) {
+            eventPublisher.publishEvent(BatteriesSavedEvent.of(batteries));
+        }
 
         logger.info("Saving batteries: Size={}: COMPLETE", batteries.size());
     }
 
+    @Override
+    @Transactional(readOnly = true)
     public BatterySearchResponseDto getBatteriesByPostcodeRange(
             int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity) {
 
+        return getBatteriesByPostcodeRange(startPostcode, endPostcode, minCapacity, maxCapacity, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BatterySearchResponseDto getBatteriesWithDistributionByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity) {
+
+        CapacityHistogram histogram = new CapacityHistogram();
+        BatterySearchResponseDto response = getBatteriesByPostcodeRange(
+                startPostcode, endPostcode, minCapacity, maxCapacity, histogram);
+        response.setCapacityDistribution(histogram.toDto());
+        return response;
+    }
+
+    /**
+     * Full search that also records every matching capacity into
+     * {@code histogram}, if not null, in the same pass, so callers searching
+     * several sub-ranges can merge the sketches before summarising them.
+     */
+    @Transactional(readOnly = true)
+    public BatterySearchResponseDto getBatteriesByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity,
+            CapacityHistogram histogram) {
+
+        return getBatteriesByPostcodeRange(startPostcode, endPostcode, minCapacity, maxCapacity, histogram, -1);
+    }
+
+    /**
+     * As above, with {@code rangeRows}, the unfiltered battery count of the
+     * range if the caller already has it (e.g. from {@link #splitByRows}) or
+     * negative if not, used to size the names array up front.
+     */
+    @Transactional(readOnly = true)
+    public BatterySearchResponseDto getBatteriesByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity,
+            CapacityHistogram histogram, long rangeRows) {
+
         logger.info("Search batteries: StartPostcode={}, EndPostcode={}: START", startPostcode, endPostcode);
 
-        if (startPostcode > endPostcode) {
-            throw new InvalidRangeException("Start postcode must be less than or equal to end postcode");
+        PostcodeRangeValidator.validate(startPostcode, endPostcode);
+
+        // One cursor pass fills names and stats together; the row count only sizes the names array
+        long expectedRows = capacityIndex.stats(startPostcode, endPostcode, minCapacity, maxCapacity)
+                .map(BatteryCapacityStats::getBatteryCount)
+                .orElse(minCapacity == null && maxCapacity == null && rangeRows >= 0
+                        ? rangeRows : CapacityAggregator.DEFAULT_EXPECTED_ROWS);
+        CapacityAggregator aggregator = new CapacityAggregator(expectedRows, histogram);
+        batteryRepository.streamNamesInRangeOrderByName(startPostcode, endPostcode, minCapacity, maxCapacity, aggregator);
+
+        logger.info("Search batteries: StartPostcode={}, EndPostcode={}, Count={}: COMPLETE",
+                startPostcode, endPostcode, aggregator.getBatteryCount());
+
+        return new BatterySearchResponseDto(aggregator.names(),
+                aggregator.getTotalCapacity(), aggregator.getAverageCapacity());
+    }
+
+    /**
+     * Inclusive sub-ranges covering the range in order, each holding about
+     * {@code rowsPerPart} batteries and at most {@code maxParts} of them; a
+     * single sub-range when the range holds fewer rows. Each carries its
+     * share of the row count so its search can be sized without another query.
+     * Row counts come from the capacity index when loaded, otherwise from
+     * {@code postcode_capacity_rollup}, so splitting never scans batteries.
+     */
+    @Transactional(readOnly = true)
+    public List<PostcodeSubRange> splitByRows(int startPostcode, int endPostcode, long rowsPerPart, int maxParts) {
+        long rows = capacityIndex.stats(startPostcode, endPostcode, null, null)
+                .orElseGet(() -> batteryRepository.aggregateRollupInRange(startPostcode, endPostcode))
+                .getBatteryCount();
+        int parts = (int) Math.min(maxParts, (rows + rowsPerPart - 1) / rowsPerPart);
+        if (parts <= 1) {
+            return List.of(new PostcodeSubRange(startPostcode, endPostcode, rows));
         }
 
-        List<Battery> batteries = batteryRepository.findInRangeWithOptionalCapacity(
-                startPostcode, endPostcode, minCapacity, maxCapacity);
+        List<Integer> lastPostcodes = batteryRepository.findRowBalancedSplitPoints(startPostcode, endPostcode, parts);
+        // Cut points are row-balanced, so every slice holds about the same share
+        long rowsPerSubRange = (rows + lastPostcodes.size() - 1) / lastPostcodes.size();
+        List<PostcodeSubRange> subRanges = new ArrayList<>(lastPostcodes.size());
+        int from = startPostcode;
+        for (int i = 0; i < lastPostcodes.size() - 1; i++) {
+            subRanges.add(new PostcodeSubRange(from, lastPostcodes.get(i), rowsPerSubRange));
+            from = lastPostcodes.get(i) + 1;
+        }
+        subRanges.add(new PostcodeSubRange(from, endPostcode, rowsPerSubRange));
+        return subRanges;
+    }
 
-        List<String> names = batteries.stream()
-                .map(Battery::getName)
-                .sorted()
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public BatterySearchPageResponseDto getBatteryPageByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity,
+            int pageSize, String cursor) {
+
+        logger.info("Search battery page: StartPostcode={}, EndPostcode={}, PageSize={}: START",
+                startPostcode, endPostcode, pageSize);
+
+        PostcodeRangeValidator.validate(startPostcode, endPostcode);
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
 
-        long totalCapacity = batteries.stream().mapToLong(Battery::getCapacity).sum();
-        double averageCapacity = batteries.isEmpty() ? 0.0 : (double) totalCapacity / batteries.size();
+        BatteryCapacityStats stats = capacityStats(startPostcode, endPostcode, minCapacity, maxCapacity);
 
-        logger.info("Search batteries: StartPostcode={}, EndPostcode={}: COMPLETE", startPostcode, endPostcode);
+        List<BatteryNameKey> rows;
+        if (cursor == null) {
+            rows = batteryRepository.findFirstNamePage(
+                    startPostcode, endPostcode, minCapacity, maxCapacity, pageSize + 1);
+        } else {
+            SearchCursor after = SearchCursor.decode(cursor);
+            rows = batteryRepository.findNamePageAfter(
+                    startPostcode, endPostcode, minCapacity, maxCapacity, after.getName(), after.getId(), pageSize + 1);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<BatteryNameKey> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        List<String> names = new ArrayList<>(page.size());
+        for (BatteryNameKey row : page) {
+            names.add(row.getName());
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            BatteryNameKey last = page.get(page.size() - 1);
+            nextCursor = new SearchCursor(last.getName(), last.getId()).encode();
+        }
+
+        logger.info("Search battery page: StartPostcode={}, EndPostcode={}, PageSize={}: COMPLETE",
+                startPostcode, endPostcode, pageSize);
+
+        return new BatterySearchPageResponseDto(names, stats.getBatteryCount(),
+                stats.getTotalCapacity(), stats.getAverageCapacity(), nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BatterySearchSummaryDto getBatteryStatsByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity) {
+
+        logger.info("Search battery stats: StartPostcode={}, EndPostcode={}: START", startPostcode, endPostcode);
+
+        PostcodeRangeValidator.validate(startPostcode, endPostcode);
+
+        BatteryCapacityStats stats = minCapacity == null && maxCapacity == null
+                ? batteryRepository.aggregateRollupInRange(startPostcode, endPostcode)
+                : capacityStats(startPostcode, endPostcode, minCapacity, maxCapacity);
+
+        logger.info("Search battery stats: StartPostcode={}, EndPostcode={}: COMPLETE", startPostcode, endPostcode);
+
+        return new BatterySearchSummaryDto(stats.getBatteryCount(), stats.getTotalCapacity(), stats.getAverageCapacity());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BatterySearchSummaryDto streamBatteriesByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity,
+            Consumer<String> nameConsumer) {
+
+        logger.info("Stream batteries: StartPostcode={}, EndPostcode={}: START", startPostcode, endPostcode);
+
+        PostcodeRangeValidator.validate(startPostcode, endPostcode);
+
+        long[] countAndTotal = new long[2];
+        batteryRepository.streamNamesInRangeOrderByName(startPostcode, endPostcode, minCapacity, maxCapacity,
+                (name, capacity) -> {
+                    nameConsumer.accept(name);
+                    countAndTotal[0]++;
+                    countAndTotal[1] += capacity;
+                });
+
+        long count = countAndTotal[0];
+        long totalCapacity = countAndTotal[1];
+        double averageCapacity = count == 0 ? 0.0 : (double) totalCapacity / count;
+
+        logger.info("Stream batteries: StartPostcode={}, EndPostcode={}, Count={}: COMPLETE",
+                startPostcode, endPostcode, count);
+
+        return new BatterySearchSummaryDto(count, totalCapacity, averageCapacity);
+    }
 
-        return new BatterySearchResponseDto(names, totalCapacity, averageCapacity);
+    private BatteryCapacityStats capacityStats(int startPostcode, int endPostcode,
+                                               Integer minCapacity, Integer maxCapacity) {
+        return capacityIndex.stats(startPostcode, endPostcode, minCapacity, maxCapacity)
+                .orElseGet(() -> batteryRepository.aggregateCapacityInRange(
+                        startPostcode, endPostcode, minCapacity, maxCapacity));
     }
 
 }
@@ -0,0 +1,95 @@
+package com.tanmoy.vpp.service.impl;
+
+import com.tanmoy.vpp.cache.SearchKey;
+import com.tanmoy.vpp.cache.SearchResultCache;
+import com.tanmoy.vpp.dto.response.BatterySearchPageResponseDto;
+import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import com.tanmoy.vpp.dto.response.BatterySearchSummaryDto;
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.service.BatteryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Serves repeated searches from {@link SearchResultCache} in front of
+ * {@link BatteryServiceImpl}, so cache hits never open a transaction or
+ * borrow a database connection. Cache misses over wide ranges are split by
+ * {@link ParallelRangeSearcher}. Inserts go through
+ * {@link GroupCommitBatteryWriter} to share transactions with concurrent callers.
+ */
+@Service
+@Primary
+@Profile("!sharded & !reactive")
+public class CachingBatteryService implements BatteryService {
+
+    private final BatteryServiceImpl delegate;
+    private final SearchResultCache searchResultCache;
+    private final GroupCommitBatteryWriter groupCommitWriter;
+    private final ParallelRangeSearcher parallelRangeSearcher;
+
+    @Autowired
+    public CachingBatteryService(BatteryServiceImpl delegate,
+                                 SearchResultCache searchResultCache,
+                                 GroupCommitBatteryWriter groupCommitWriter,
+                                 ParallelRangeSearcher parallelRangeSearcher) {
+        this.delegate = delegate;
+        this.searchResultCache = searchResultCache;
+        this.groupCommitWriter = groupCommitWriter;
+        this.parallelRangeSearcher = parallelRangeSearcher;
+    }
+
+    @Override
+    public void saveAll(List<Battery> batteries) {
+        groupCommitWriter.write(batteries);
+    }
+
+    @Override
+    public BatterySearchResponseDto getBatteriesByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity) {
+
+        return searchResultCache.get(
+                new SearchKey(startPostcode, endPostcode, minCapacity, maxCapacity),
+                key -> parallelRangeSearcher.search(
+                        key.startPostcode(), key.endPostcode(), key.minCapacity(), key.maxCapacity()));
+    }
+
+    @Override
+    public BatterySearchResponseDto getBatteriesWithDistributionByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity) {
+
+        return searchResultCache.get(
+                new SearchKey(startPostcode, endPostcode, minCapacity, maxCapacity, true),
+                key -> parallelRangeSearcher.searchWithDistribution(
+                        key.startPostcode(), key.endPostcode(), key.minCapacity(), key.maxCapacity()));
+    }
+
+    @Override
+    public BatterySearchPageResponseDto getBatteryPageByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity,
+            int pageSize, String cursor) {
+
+        return delegate.getBatteryPageByPostcodeRange(
+                startPostcode, endPostcode, minCapacity, maxCapacity, pageSize, cursor);
+    }
+
+    @Override
+    public BatterySearchSummaryDto getBatteryStatsByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity) {
+
+        return delegate.getBatteryStatsByPostcodeRange(startPostcode, endPostcode, minCapacity, maxCapacity);
+    }
+
+    @Override
+    public BatterySearchSummaryDto streamBatteriesByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity,
+            Consumer<String> nameConsumer) {
+
+        return delegate.streamBatteriesByPostcodeRange(
+                startPostcode, endPostcode, minCapacity, maxCapacity, nameConsumer);
+    }
+}
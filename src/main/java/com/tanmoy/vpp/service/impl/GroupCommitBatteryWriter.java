@@ -0,0 +1,213 @@
+package com.tanmoy.vpp.service.impl;
+
+import com.tanmoy.vpp.metrics.BatteryMetrics;
+import com.tanmoy.vpp.model.Battery;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group commit for {@code saveAll}: concurrent callers' batteries are merged
+ * into one transaction, so thousands of 1-5 battery requests per second share
+ * a handful of commits instead of paying one fsync each.
+ *
+ * <p>Opt-in via {@code vpp.ingest.group-commit.enabled}. A writer thread
+ * takes the first waiting request; if others are already queued behind it,
+ * it keeps collecting for at most {@code vpp.ingest.group-commit.max-delay}
+ * or until {@code vpp.ingest.group-commit.max-rows} batteries, whichever
+ * comes first, and saves the group with {@link BatteryServiceImpl#saveAll}.
+ * A lone request is committed without waiting. Each caller
+ * blocks until that transaction has committed. If the group fails, its
+ * requests are retried one per transaction so every caller gets its own
+ * outcome.
+ *
+ * <p>Callers already inside a transaction, and calls made while the writer is
+ * disabled or stopping, are saved directly.
+ */
+@Component
+@Profile("!reactive")
+public class GroupCommitBatteryWriter {
+
+    private static final Logger logger = LogManager.getLogger(GroupCommitBatteryWriter.class);
+
+    private static final int QUEUE_CAPACITY = 10_000;
+
+    private final BatteryServiceImpl batteryService;
+    private final BatteryMetrics batteryMetrics;
+    private final boolean enabled;
+    private final long maxDelayNanos;
+    private final int maxRows;
+    private final int writers;
+    private final BlockingQueue<PendingWrite> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    private volatile boolean running;
+    private ExecutorService writerPool;
+
+    @Autowired
+    public GroupCommitBatteryWriter(BatteryServiceImpl batteryService,
+                                    BatteryMetrics batteryMetrics,
+                                    @Value("${vpp.ingest.group-commit.enabled:false}") boolean enabled,
+                                    @Value("${vpp.ingest.group-commit.max-delay:5ms}") Duration maxDelay,
+                                    @Value("${vpp.ingest.group-commit.max-rows:1000}") int maxRows,
+                                    @Value("${vpp.ingest.group-commit.writers:2}") int writers) {
+        this.batteryService = batteryService;
+        this.batteryMetrics = batteryMetrics;
+        this.enabled = enabled;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.maxRows = maxRows;
+        this.writers = writers;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        AtomicInteger threadCount = new AtomicInteger();
+        writerPool = Executors.newFixedThreadPool(writers, runnable -> {
+            Thread thread = new Thread(runnable, "group-commit-writer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < writers; i++) {
+            writerPool.execute(this::drain);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writerPool != null) {
+            writerPool.shutdown();
+            if (!writerPool.awaitTermination(10, TimeUnit.SECONDS)) {
+                writerPool.shutdownNow();
+            }
+        }
+        // Callers that enqueued while the writers were exiting
+        PendingWrite write;
+        while ((write = queue.poll()) != null) {
+            commitSingle(write);
+        }
+    }
+
+    /**
+     * Saves the batteries as part of the next group and returns once they are committed.
+     */
+    public void write(List<Battery> batteries) {
+        if (!running || batteries.isEmpty() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            batteryService.saveAll(batteries);
+            return;
+        }
+
+        PendingWrite write = new PendingWrite(batteries);
+        try {
+            queue.put(write);
+            // stop() may have drained the queue between the running check and put; whoever removes it commits it
+            if (!running && queue.remove(write)) {
+                commitSingle(write);
+            }
+            write.done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void drain() {
+        List<PendingWrite> group = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                int rows = first.batteries.size();
+                long deadline = System.nanoTime() + maxDelayNanos;
+                // Only wait for company when there is concurrent load; a lone caller commits at once
+                boolean concurrent = !queue.isEmpty();
+                while (concurrent && rows < maxRows) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite next = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                    rows += next.batteries.size();
+                }
+                commit(group, rows);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                group.forEach(write -> write.done.completeExceptionally(
+                        new IllegalStateException("Group commit writer stopped")));
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingWrite> group, int rows) {
+        if (group.size() == 1) {
+            commitSingle(group.get(0));
+            return;
+        }
+
+        List<Battery> batteries = new ArrayList<>(rows);
+        group.forEach(write -> batteries.addAll(write.batteries));
+        try {
+            batteryService.saveAll(batteries);
+            batteryMetrics.recordGroupCommit(group.size(), rows);
+            group.forEach(write -> write.done.complete(null));
+        } catch (RuntimeException e) {
+            logger.warn("Group commit of {} requests failed, retrying individually", group.size(), e);
+            group.forEach(this::commitSingle);
+        }
+    }
+
+    private void commitSingle(PendingWrite write) {
+        try {
+            batteryService.saveAll(write.batteries);
+            batteryMetrics.recordGroupCommit(1, write.batteries.size());
+            write.done.complete(null);
+        } catch (RuntimeException e) {
+            write.done.completeExceptionally(e);
+        }
+    }
+
+    private static final class PendingWrite {
+
+        private final List<Battery> batteries;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private PendingWrite(List<Battery> batteries) {
+            this.batteries = batteries;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.tanmoy.vpp.service.impl;
+
+import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import com.tanmoy.vpp.index.CapacityHistogram;
+import com.tanmoy.vpp.util.NameOrder;
+import com.tanmoy.vpp.util.PostcodeRangeValidator;
+import com.tanmoy.vpp.util.SortedMerge;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits searches covering more than {@code vpp.search.parallel.split-threshold}
+ * batteries into at most {@code vpp.search.parallel.max-sub-ranges} sub-ranges
+ * holding about equal battery counts ({@link BatteryServiceImpl#splitByRows},
+ * cut from the per-postcode rollup) and searches them concurrently, each in its own read-only
+ * transaction on its own pooled connection, so the per-partition index scans
+ * overlap instead of running one after another. The name-ordered sub-results
+ * are combined with a k-way merge and their totals added up; with extended
+ * stats, their capacity histograms are merged too.
+ *
+ * <p>All searches share {@code vpp.search.parallel.threads} worker threads,
+ * which bounds the extra connections fan-out can take from the pool. When the
+ * workers and their queue are busy, the calling thread searches the sub-range
+ * itself rather than waiting.
+ */
+@Component
+@Profile("!reactive")
+public class ParallelRangeSearcher {
+
+    private static final Logger logger = LogManager.getLogger(ParallelRangeSearcher.class);
+
+    private final BatteryServiceImpl batteryService;
+    private final long splitThreshold;
+    private final int maxSubRanges;
+    private final ThreadPoolExecutor workers;
+
+    @Autowired
+    public ParallelRangeSearcher(BatteryServiceImpl batteryService,
+                                 @Value("${vpp.search.parallel.split-threshold:100000}") long splitThreshold,
+                                 @Value("${vpp.search.parallel.max-sub-ranges:4}") int maxSubRanges,
+                                 @Value("${vpp.search.parallel.threads:4}") int threads) {
+        this.batteryService = batteryService;
+        this.splitThreshold = Math.max(1, splitThreshold);
+        this.maxSubRanges = Math.max(1, maxSubRanges);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * this.maxSubRanges),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "range-search-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    public BatterySearchResponseDto search(int startPostcode, int endPostcode,
+                                           Integer minCapacity, Integer maxCapacity) {
+        return search(startPostcode, endPostcode, minCapacity, maxCapacity, false);
+    }
+
+    /** As {@link #search}, with each sub-range's capacity histogram merged into one distribution. */
+    public BatterySearchResponseDto searchWithDistribution(int startPostcode, int endPostcode,
+                                                           Integer minCapacity, Integer maxCapacity) {
+        return search(startPostcode, endPostcode, minCapacity, maxCapacity, true);
+    }
+
+    private BatterySearchResponseDto search(int startPostcode, int endPostcode,
+                                            Integer minCapacity, Integer maxCapacity,
+                                            boolean withDistribution) {
+        PostcodeRangeValidator.validate(startPostcode, endPostcode);
+
+        List<PostcodeSubRange> subRanges = split(startPostcode, endPostcode);
+        if (subRanges.size() == 1) {
+            CapacityHistogram histogram = withDistribution ? new CapacityHistogram() : null;
+            BatterySearchResponseDto response = batteryService.getBatteriesByPostcodeRange(
+                    startPostcode, endPostcode, minCapacity, maxCapacity, histogram, subRanges.get(0).rows());
+            if (histogram != null) {
+                response.setCapacityDistribution(histogram.toDto());
+            }
+            return response;
+        }
+
+        logger.info("Parallel search batteries: StartPostcode={}, EndPostcode={}, SubRanges={}: START",
+                startPostcode, endPostcode, subRanges.size());
+
+        List<CapacityHistogram> histograms = new ArrayList<>(subRanges.size());
+        List<CompletableFuture<BatterySearchResponseDto>> futures = new ArrayList<>(subRanges.size());
+        for (PostcodeSubRange subRange : subRanges) {
+            // One histogram per sub-range: they are filled concurrently and merged afterwards
+            CapacityHistogram histogram = withDistribution ? new CapacityHistogram() : null;
+            histograms.add(histogram);
+            futures.add(CompletableFuture.supplyAsync(() -> batteryService.getBatteriesByPostcodeRange(
+                    subRange.startPostcode(), subRange.endPostcode(), minCapacity, maxCapacity,
+                    histogram, subRange.rows()), workers));
+        }
+
+        List<List<String>> names = new ArrayList<>(futures.size());
+        long count = 0;
+        long totalCapacity = 0;
+        try {
+            for (CompletableFuture<BatterySearchResponseDto> future : futures) {
+                BatterySearchResponseDto result = future.join();
+                names.add(result.getBatteryNames());
+                count += result.getBatteryNames().size();
+                totalCapacity += result.getTotalWattCapacity();
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        double averageCapacity = count == 0 ? 0.0 : (double) totalCapacity / count;
+
+        logger.info("Parallel search batteries: StartPostcode={}, EndPostcode={}, SubRanges={}: COMPLETE",
+                startPostcode, endPostcode, subRanges.size());
+
+        BatterySearchResponseDto response = new BatterySearchResponseDto(
+                SortedMerge.merge(names, NameOrder.CODE_POINT), totalCapacity, averageCapacity);
+        if (withDistribution) {
+            CapacityHistogram merged = new CapacityHistogram();
+            histograms.forEach(merged::add);
+            response.setCapacityDistribution(merged.toDto());
+        }
+        return response;
+    }
+
+    /**
+     * Sub-ranges covering the range in order; a single one below the threshold,
+     * with an unknown (negative) row count when splitting is disabled.
+     */
+    List<PostcodeSubRange> split(int startPostcode, int endPostcode) {
+        if (maxSubRanges == 1) {
+            return List.of(new PostcodeSubRange(startPostcode, endPostcode, -1));
+        }
+        return batteryService.splitByRows(startPostcode, endPostcode, splitThreshold, maxSubRanges);
+    }
+}
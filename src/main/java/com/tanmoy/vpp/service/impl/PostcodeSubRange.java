@@ -0,0 +1,8 @@
+package com.tanmoy.vpp.service.impl;
+
+/**
+ * An inclusive slice of a searched postcode range and the number of batteries
+ * it holds according to the rollup, before any capacity filter.
+ */
+public record PostcodeSubRange(int startPostcode, int endPostcode, long rows) {
+}
@@ -0,0 +1,95 @@
+package com.tanmoy.vpp.service.impl;
+
+import com.tanmoy.vpp.dto.response.BatteryNameDto;
+import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import com.tanmoy.vpp.dto.response.BatterySearchSummaryDto;
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.repository.ReactiveBatteryRepository;
+import com.tanmoy.vpp.repository.projection.BatteryNameCapacity;
+import com.tanmoy.vpp.service.ReactiveBatteryService;
+import com.tanmoy.vpp.util.PostcodeRangeValidator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Profile("reactive")
+public class ReactiveBatteryServiceImpl implements ReactiveBatteryService {
+
+    private static final Logger logger = LogManager.getLogger(ReactiveBatteryServiceImpl.class);
+
+    private final ReactiveBatteryRepository batteryRepository;
+    private final TransactionalOperator transactionalOperator;
+
+    @Autowired
+    public ReactiveBatteryServiceImpl(ReactiveBatteryRepository batteryRepository,
+                                      TransactionalOperator transactionalOperator) {
+        this.batteryRepository = batteryRepository;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    @Override
+    public Mono<Long> saveAll(List<Battery> batteries) {
+        return batteryRepository.insertAll(batteries)
+                .as(transactionalOperator::transactional)
+                .doOnSubscribe(subscription -> logger.info("Saving batteries: Size={}: START", batteries.size()))
+                .doOnSuccess(saved -> logger.info("Saving batteries: Size={}: COMPLETE", batteries.size()));
+    }
+
+    @Override
+    public Mono<BatterySearchResponseDto> getBatteriesByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity) {
+
+        PostcodeRangeValidator.validate(startPostcode, endPostcode);
+
+        return batteryRepository.findNamesInRangeOrderByName(startPostcode, endPostcode, minCapacity, maxCapacity)
+                .collect(SearchAccumulator::new, SearchAccumulator::add)
+                .map(SearchAccumulator::toResponse);
+    }
+
+    @Override
+    public Flux<Object> streamBatteriesByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity) {
+
+        PostcodeRangeValidator.validate(startPostcode, endPostcode);
+
+        return Flux.defer(() -> {
+            long[] countAndTotal = new long[2];
+            Flux<Object> names = batteryRepository
+                    .findNamesInRangeOrderByName(startPostcode, endPostcode, minCapacity, maxCapacity)
+                    .map(battery -> {
+                        countAndTotal[0]++;
+                        countAndTotal[1] += battery.capacity();
+                        return new BatteryNameDto(battery.name());
+                    });
+            return names.concatWith(Mono.fromSupplier(() -> summary(countAndTotal[0], countAndTotal[1])));
+        });
+    }
+
+    private static BatterySearchSummaryDto summary(long count, long total) {
+        return new BatterySearchSummaryDto(count, total, count == 0 ? 0.0 : (double) total / count);
+    }
+
+    private static final class SearchAccumulator {
+
+        private final List<String> names = new ArrayList<>();
+        private long total;
+
+        void add(BatteryNameCapacity battery) {
+            names.add(battery.name());
+            total += battery.capacity();
+        }
+
+        BatterySearchResponseDto toResponse() {
+            return new BatterySearchResponseDto(names, total, names.isEmpty() ? 0.0 : (double) total / names.size());
+        }
+    }
+}
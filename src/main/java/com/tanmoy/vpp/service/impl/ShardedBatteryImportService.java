@@ -0,0 +1,145 @@
+package com.tanmoy.vpp.service.impl;
+
+import com.tanmoy.vpp.ingest.BatterySource;
+import com.tanmoy.vpp.ingest.BatteryUploadReader;
+import com.tanmoy.vpp.service.BatteryImportService;
+import com.tanmoy.vpp.shard.PostcodeShard;
+import com.tanmoy.vpp.shard.ShardRouter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link BatteryImportService} for the {@code sharded} profile. Each uploaded
+ * row is routed by postcode into a {@code COPY} on its owning shard, opened
+ * when the shard receives its first row, so the upload is still read once and
+ * never held in memory. The shard transactions are committed only after every
+ * COPY has ended; a failure while reading or copying rolls all of them back,
+ * but a failing commit can still leave the shards committed before it.
+ */
+@Service
+@Primary
+@Profile("sharded")
+public class ShardedBatteryImportService implements BatteryImportService {
+
+    private static final Logger logger = LogManager.getLogger(ShardedBatteryImportService.class);
+
+    private final ShardRouter shardRouter;
+    private final BatteryUploadReader uploadReader;
+
+    @Autowired
+    public ShardedBatteryImportService(ShardRouter shardRouter, BatteryUploadReader uploadReader) {
+        this.shardRouter = shardRouter;
+        this.uploadReader = uploadReader;
+    }
+
+    @Override
+    public long importCsv(InputStream inputStream) {
+        return copyIn(uploadReader.csv(inputStream));
+    }
+
+    @Override
+    public long importNdjson(InputStream inputStream) {
+        return copyIn(uploadReader.ndjson(inputStream));
+    }
+
+    @Override
+    public long importJson(InputStream inputStream) {
+        return copyIn(uploadReader.json(inputStream));
+    }
+
+    private long copyIn(BatterySource source) {
+
+        logger.info("Import batteries to shards: START");
+
+        Map<PostcodeShard, ShardCopy> copies = new LinkedHashMap<>();
+        try {
+            source.forEach(battery -> {
+                PostcodeShard shard = shardRouter.shardFor(battery.getPostcodeNumeric());
+                ShardCopy copy = copies.get(shard);
+                if (copy == null) {
+                    copy = ShardCopy.open(shard);
+                    copies.put(shard, copy);
+                }
+                copy.stream.write(battery);
+            });
+
+            long rows = 0;
+            for (ShardCopy copy : copies.values()) {
+                rows += copy.stream.finish();
+            }
+            for (ShardCopy copy : copies.values()) {
+                copy.connection.commit();
+            }
+
+            logger.info("Import batteries to shards: Rows={}, Shards={}: COMPLETE", rows, copies.size());
+
+            return rows;
+        } catch (SQLException e) {
+            throw BatteryCopyStream.copyFailed(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read battery import stream", e);
+        } finally {
+            copies.values().forEach(ShardCopy::close);
+        }
+    }
+
+    /**
+     * A shard connection with autocommit off and the COPY running on it.
+     */
+    private static final class ShardCopy {
+
+        private final Connection connection;
+        private final BatteryCopyStream stream;
+
+        private ShardCopy(Connection connection, BatteryCopyStream stream) {
+            this.connection = connection;
+            this.stream = stream;
+        }
+
+        static ShardCopy open(PostcodeShard shard) {
+            Connection connection = null;
+            try {
+                connection = shard.getDataSource().getConnection();
+                connection.setAutoCommit(false);
+                return new ShardCopy(connection, BatteryCopyStream.open(connection));
+            } catch (SQLException e) {
+                closeQuietly(connection);
+                throw BatteryCopyStream.copyFailed(e);
+            }
+        }
+
+        /** Cancels an unfinished COPY, rolls back anything uncommitted and returns the connection. */
+        void close() {
+            stream.cancelIfActive();
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                logger.warn("Failed to roll back battery import on shard", e);
+            }
+            closeQuietly(connection);
+        }
+
+        private static void closeQuietly(Connection connection) {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.warn("Failed to close shard connection", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.tanmoy.vpp.service.impl;
+
+import com.tanmoy.vpp.dto.response.BatterySearchPageResponseDto;
+import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import com.tanmoy.vpp.dto.response.BatterySearchSummaryDto;
+import com.tanmoy.vpp.index.CapacityHistogram;
+import com.tanmoy.vpp.index.CapacityRangeStats;
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.repository.projection.BatteryCapacityStats;
+import com.tanmoy.vpp.service.BatteryService;
+import com.tanmoy.vpp.shard.PostcodeShard;
+import com.tanmoy.vpp.shard.ShardBatteryRow;
+import com.tanmoy.vpp.shard.ShardRouter;
+import com.tanmoy.vpp.shard.ShardSearchResult;
+import com.tanmoy.vpp.shard.ShardingProperties;
+import com.tanmoy.vpp.util.NameOrder;
+import com.tanmoy.vpp.util.PostcodeRangeValidator;
+import com.tanmoy.vpp.util.SearchCursor;
+import com.tanmoy.vpp.util.SortedMerge;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * {@link BatteryService} for the {@code sharded} profile. Inserts are split by
+ * owning shard and written to all of them in parallel, one local transaction
+ * per shard: a failure on one shard does not roll back the others. Searches
+ * run in parallel on the shards overlapping the requested range only; their
+ * name-ordered results are combined with a k-way merge and their counts and
+ * sums added up; extended stats merge one capacity histogram per shard.
+ */
+@Service
+@Primary
+@Profile("sharded")
+public class ShardedBatteryService implements BatteryService {
+
+    private static final Logger logger = LogManager.getLogger(ShardedBatteryService.class);
+
+    private final ShardRouter shardRouter;
+    private final ExecutorService fanOutExecutor;
+    private final int streamPageSize;
+
+    @Autowired
+    public ShardedBatteryService(ShardRouter shardRouter,
+                                 ShardingProperties properties,
+                                 @Value("${vpp.search.stream.fetch-size:1000}") int streamPageSize) {
+        this.shardRouter = shardRouter;
+        this.streamPageSize = streamPageSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fanOutExecutor = Executors.newFixedThreadPool(properties.getFanOutThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "shard-fan-out-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        fanOutExecutor.shutdownNow();
+    }
+
+    @Override
+    public void saveAll(List<Battery> batteries) {
+
+        logger.info("Saving batteries to shards: Size={}: START", batteries.size());
+
+        Map<PostcodeShard, List<Battery>> byShard = shardRouter.partition(batteries);
+        fanOut(new ArrayList<>(byShard.keySet()), shard -> {
+            shard.insert(byShard.get(shard));
+            return null;
+        });
+
+        logger.info("Saving batteries to shards: Size={}, Shards={}: COMPLETE", batteries.size(), byShard.size());
+    }
+
+    @Override
+    public BatterySearchResponseDto getBatteriesByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity) {
+
+        return search(startPostcode, endPostcode, minCapacity, maxCapacity, false);
+    }
+
+    @Override
+    public BatterySearchResponseDto getBatteriesWithDistributionByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity) {
+
+        return search(startPostcode, endPostcode, minCapacity, maxCapacity, true);
+    }
+
+    private BatterySearchResponseDto search(int startPostcode, int endPostcode,
+                                            Integer minCapacity, Integer maxCapacity,
+                                            boolean withDistribution) {
+
+        logger.info("Search sharded batteries: StartPostcode={}, EndPostcode={}: START", startPostcode, endPostcode);
+
+        PostcodeRangeValidator.validate(startPostcode, endPostcode);
+
+        List<PostcodeShard> shards = shardRouter.overlapping(startPostcode, endPostcode);
+        Map<PostcodeShard, CapacityHistogram> histograms = new IdentityHashMap<>();
+        if (withDistribution) {
+            shards.forEach(shard -> histograms.put(shard, new CapacityHistogram()));
+        }
+        List<ShardSearchResult> results = fanOut(shards,
+                shard -> shard.search(startPostcode, endPostcode, minCapacity, maxCapacity, histograms.get(shard)));
+
+        List<List<String>> names = new ArrayList<>(results.size());
+        List<BatteryCapacityStats> stats = new ArrayList<>(results.size());
+        for (ShardSearchResult result : results) {
+            names.add(result.names());
+            stats.add(result.stats());
+        }
+        BatteryCapacityStats combined = combine(stats);
+
+        logger.info("Search sharded batteries: StartPostcode={}, EndPostcode={}, Shards={}: COMPLETE",
+                startPostcode, endPostcode, results.size());
+
+        BatterySearchResponseDto response = new BatterySearchResponseDto(
+                SortedMerge.merge(names, NameOrder.CODE_POINT),
+                combined.getTotalCapacity(), combined.getAverageCapacity());
+        if (withDistribution) {
+            CapacityHistogram merged = new CapacityHistogram();
+            histograms.values().forEach(merged::add);
+            response.setCapacityDistribution(merged.toDto());
+        }
+        return response;
+    }
+
+    @Override
+    public BatterySearchPageResponseDto getBatteryPageByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity,
+            int pageSize, String cursor) {
+
+        logger.info("Search sharded battery page: StartPostcode={}, EndPostcode={}, PageSize={}: START",
+                startPostcode, endPostcode, pageSize);
+
+        PostcodeRangeValidator.validate(startPostcode, endPostcode);
+        if (pageSize < 1 || pageSize > BatteryServiceImpl.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + BatteryServiceImpl.MAX_PAGE_SIZE);
+        }
+        SearchCursor after = cursor == null ? null : SearchCursor.decode(cursor);
+        String afterName = after == null ? null : after.getName();
+        UUID afterId = after == null ? null : after.getId();
+
+        List<PostcodeShard> shards = shardRouter.overlapping(startPostcode, endPostcode);
+        List<BatteryCapacityStats> stats = fanOut(shards,
+                shard -> shard.stats(startPostcode, endPostcode, minCapacity, maxCapacity));
+        List<List<ShardBatteryRow>> pages = fanOut(shards,
+                shard -> shard.findNamePage(startPostcode, endPostcode, minCapacity, maxCapacity,
+                        afterName, afterId, pageSize + 1));
+
+        Iterator<ShardBatteryRow> merged = SortedMerge.mergeIterators(
+                pages.stream().map(List::iterator).toList(), ShardBatteryRow.NAME_ORDER);
+        List<String> names = new ArrayList<>(pageSize);
+        ShardBatteryRow last = null;
+        while (merged.hasNext() && names.size() < pageSize) {
+            last = merged.next();
+            names.add(last.name());
+        }
+        String nextCursor = merged.hasNext() ? new SearchCursor(last.name(), last.id()).encode() : null;
+        BatteryCapacityStats combined = combine(stats);
+
+        logger.info("Search sharded battery page: StartPostcode={}, EndPostcode={}, PageSize={}: COMPLETE",
+                startPostcode, endPostcode, pageSize);
+
+        return new BatterySearchPageResponseDto(names, combined.getBatteryCount(),
+                combined.getTotalCapacity(), combined.getAverageCapacity(), nextCursor);
+    }
+
+    @Override
+    public BatterySearchSummaryDto getBatteryStatsByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity) {
+
+        logger.info("Search sharded battery stats: StartPostcode={}, EndPostcode={}: START", startPostcode, endPostcode);
+
+        PostcodeRangeValidator.validate(startPostcode, endPostcode);
+
+        BatteryCapacityStats combined = combine(fanOut(shardRouter.overlapping(startPostcode, endPostcode),
+                shard -> shard.stats(startPostcode, endPostcode, minCapacity, maxCapacity)));
+
+        logger.info("Search sharded battery stats: StartPostcode={}, EndPostcode={}: COMPLETE", startPostcode, endPostcode);
+
+        return new BatterySearchSummaryDto(combined.getBatteryCount(),
+                combined.getTotalCapacity(), combined.getAverageCapacity());
+    }
+
+    /**
+     * Pages through every overlapping shard {@code vpp.search.stream.fetch-size}
+     * rows at a time and merges the pages as the consumer reads, so memory stays
+     * bounded by one page per shard.
+     */
+    @Override
+    public BatterySearchSummaryDto streamBatteriesByPostcodeRange(
+            int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity,
+            Consumer<String> nameConsumer) {
+
+        logger.info("Stream sharded batteries: StartPostcode={}, EndPostcode={}: START", startPostcode, endPostcode);
+
+        PostcodeRangeValidator.validate(startPostcode, endPostcode);
+
+        List<Iterator<ShardBatteryRow>> sources = new ArrayList<>();
+        for (PostcodeShard shard : shardRouter.overlapping(startPostcode, endPostcode)) {
+            sources.add(new ShardPageIterator(shard, startPostcode, endPostcode, minCapacity, maxCapacity));
+        }
+
+        long count = 0;
+        long totalCapacity = 0;
+        Iterator<ShardBatteryRow> merged = SortedMerge.mergeIterators(sources, ShardBatteryRow.NAME_ORDER);
+        while (merged.hasNext()) {
+            ShardBatteryRow row = merged.next();
+            nameConsumer.accept(row.name());
+            count++;
+            totalCapacity += row.capacity();
+        }
+        double averageCapacity = count == 0 ? 0.0 : (double) totalCapacity / count;
+
+        logger.info("Stream sharded batteries: StartPostcode={}, EndPostcode={}, Count={}: COMPLETE",
+                startPostcode, endPostcode, count);
+
+        return new BatterySearchSummaryDto(count, totalCapacity, averageCapacity);
+    }
+
+    private <T> List<T> fanOut(List<PostcodeShard> shards, Function<PostcodeShard, T> task) {
+        if (shards.size() <= 1) {
+            return shards.isEmpty() ? List.of() : List.of(task.apply(shards.get(0)));
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (PostcodeShard shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> task.apply(shard), fanOutExecutor));
+        }
+        try {
+            List<T> results = new ArrayList<>(futures.size());
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static BatteryCapacityStats combine(List<BatteryCapacityStats> stats) {
+        long count = 0;
+        long total = 0;
+        for (BatteryCapacityStats shardStats : stats) {
+            count += shardStats.getBatteryCount();
+            total += shardStats.getTotalCapacity();
+        }
+        return new CapacityRangeStats(count, total);
+    }
+
+    private final class ShardPageIterator implements Iterator<ShardBatteryRow> {
+
+        private final PostcodeShard shard;
+        private final int startPostcode;
+        private final int endPostcode;
+        private final Integer minCapacity;
+        private final Integer maxCapacity;
+        private List<ShardBatteryRow> page = List.of();
+        private int position;
+        private boolean exhausted;
+
+        ShardPageIterator(PostcodeShard shard, int startPostcode, int endPostcode,
+                          Integer minCapacity, Integer maxCapacity) {
+            this.shard = shard;
+            this.startPostcode = startPostcode;
+            this.endPostcode = endPostcode;
+            this.minCapacity = minCapacity;
+            this.maxCapacity = maxCapacity;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (position < page.size()) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            ShardBatteryRow last = page.isEmpty() ? null : page.get(page.size() - 1);
+            page = shard.findNamePage(startPostcode, endPostcode, minCapacity, maxCapacity,
+                    last == null ? null : last.name(), last == null ? null : last.id(), streamPageSize);
+            position = 0;
+            exhausted = page.size() < streamPageSize;
+            return !page.isEmpty();
+        }
+
+        @Override
+        public ShardBatteryRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.get(position++);
+        }
+    }
+}
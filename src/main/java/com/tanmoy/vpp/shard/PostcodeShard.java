@@ -0,0 +1,170 @@
+package com.tanmoy.vpp.shard;
+
+import com.tanmoy.vpp.index.CapacityAggregator;
+import com.tanmoy.vpp.index.CapacityHistogram;
+import com.tanmoy.vpp.index.CapacityRangeStats;
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.repository.BatteryRepository;
+import com.tanmoy.vpp.repository.projection.BatteryCapacityStats;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One independent PostgreSQL node holding every battery whose postcode lies in
+ * {@code [fromPostcode, lastPostcode]}, with the same Flyway schema as the
+ * single-node setup. Queries are clipped to the shard's own range so the
+ * node's postcode partitions are pruned.
+ */
+public class PostcodeShard {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO batteries (id, name, postcode, capacity, postcode_numeric) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String STATS_SQL = """
+        SELECT COUNT(*), COALESCE(SUM(b.capacity), 0) FROM batteries b
+        WHERE b.postcode_numeric BETWEEN :startPostcode AND :endPostcode
+        AND (CAST(:minCapacity AS INTEGER) IS NULL OR b.capacity >= CAST(:minCapacity AS INTEGER))
+        AND (CAST(:maxCapacity AS INTEGER) IS NULL OR b.capacity <= CAST(:maxCapacity AS INTEGER))
+    """;
+
+    private static final String ROLLUP_STATS_SQL = """
+        SELECT COALESCE(SUM(r.battery_count), 0), COALESCE(SUM(r.capacity_sum), 0)
+        FROM postcode_capacity_rollup r
+        WHERE r.postcode_numeric BETWEEN :startPostcode AND :endPostcode
+    """;
+
+    private static final String NAME_PAGE_SQL = """
+        SELECT b.id, b.name, b.capacity FROM batteries b
+        WHERE b.postcode_numeric BETWEEN :startPostcode AND :endPostcode
+        AND (CAST(:minCapacity AS INTEGER) IS NULL OR b.capacity >= CAST(:minCapacity AS INTEGER))
+        AND (CAST(:maxCapacity AS INTEGER) IS NULL OR b.capacity <= CAST(:maxCapacity AS INTEGER))
+        AND (CAST(:afterName AS VARCHAR) IS NULL
+             OR (b.name COLLATE "C", b.id) > (CAST(:afterName AS VARCHAR) COLLATE "C", CAST(:afterId AS UUID)))
+        ORDER BY b.name COLLATE "C", b.id
+        LIMIT :limit
+    """;
+
+    private final String name;
+    private final int fromPostcode;
+    private final int lastPostcode;
+    private final DataSource dataSource;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public PostcodeShard(String name, int fromPostcode, int lastPostcode, DataSource dataSource) {
+        if (fromPostcode > lastPostcode) {
+            throw new IllegalArgumentException("Shard " + name + " has an empty postcode range");
+        }
+        this.name = name;
+        this.fromPostcode = fromPostcode;
+        this.lastPostcode = lastPostcode;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getFromPostcode() {
+        return fromPostcode;
+    }
+
+    public int getLastPostcode() {
+        return lastPostcode;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean contains(int postcode) {
+        return postcode >= fromPostcode && postcode <= lastPostcode;
+    }
+
+    public boolean overlaps(int startPostcode, int endPostcode) {
+        return startPostcode <= lastPostcode && endPostcode >= fromPostcode;
+    }
+
+    public void insert(List<Battery> batteries) {
+        List<Battery> ordered = Battery.inPostcodeOrder(batteries);
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_SQL, ordered, ordered.size(), (ps, battery) -> {
+                    ps.setObject(1, battery.getId());
+                    ps.setString(2, battery.getName());
+                    ps.setString(3, battery.getPostcode());
+                    ps.setInt(4, battery.getCapacity());
+                    ps.setInt(5, battery.getPostcodeNumeric());
+                }));
+    }
+
+    /**
+     * Stats and name-ordered names for the part of the range this shard owns,
+     * folded in one pass over its rows. Capacities are also recorded into
+     * {@code histogram} unless it is null.
+     */
+    public ShardSearchResult search(int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity,
+                                    CapacityHistogram histogram) {
+        return readOnlyTransaction.execute(status -> {
+            CapacityAggregator aggregator = new CapacityAggregator(
+                    CapacityAggregator.DEFAULT_EXPECTED_ROWS, histogram);
+            jdbcTemplate.query(BatteryRepository.NAMES_WITH_CAPACITY_IN_RANGE_SQL,
+                    rangeParams(startPostcode, endPostcode, minCapacity, maxCapacity),
+                    rs -> {
+                        aggregator.accept(rs.getString(1), rs.getInt(2));
+                    });
+            return new ShardSearchResult(aggregator.names(), aggregator);
+        });
+    }
+
+    /** Unfiltered ranges are summed from {@code postcode_capacity_rollup}. */
+    public BatteryCapacityStats stats(int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity) {
+        MapSqlParameterSource params = rangeParams(startPostcode, endPostcode, minCapacity, maxCapacity);
+        return minCapacity == null && maxCapacity == null
+                ? queryStats(ROLLUP_STATS_SQL, params)
+                : queryStats(STATS_SQL, params);
+    }
+
+    /** Up to {@code limit} rows in name order after {@code (afterName, afterId)}, or from the start if null. */
+    public List<ShardBatteryRow> findNamePage(int startPostcode, int endPostcode,
+                                              Integer minCapacity, Integer maxCapacity,
+                                              String afterName, UUID afterId, int limit) {
+        MapSqlParameterSource params = rangeParams(startPostcode, endPostcode, minCapacity, maxCapacity)
+                .addValue("afterName", afterName, Types.VARCHAR)
+                .addValue("afterId", afterId, Types.OTHER)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(NAME_PAGE_SQL, params, (rs, rowNum) ->
+                new ShardBatteryRow(rs.getObject(1, UUID.class), rs.getString(2), rs.getInt(3)));
+    }
+
+    private BatteryCapacityStats queryStats(String sql, MapSqlParameterSource params) {
+        return jdbcTemplate.queryForObject(sql, params, (rs, rowNum) ->
+                new CapacityRangeStats(rs.getLong(1), rs.getLong(2)));
+    }
+
+    private MapSqlParameterSource rangeParams(int startPostcode, int endPostcode,
+                                              Integer minCapacity, Integer maxCapacity) {
+        return new MapSqlParameterSource()
+                .addValue("startPostcode", Math.max(startPostcode, fromPostcode))
+                .addValue("endPostcode", Math.min(endPostcode, lastPostcode))
+                .addValue("minCapacity", minCapacity, Types.INTEGER)
+                .addValue("maxCapacity", maxCapacity, Types.INTEGER);
+    }
+
+    @Override
+    public String toString() {
+        return name + "[" + fromPostcode + ".." + lastPostcode + "]";
+    }
+}
@@ -0,0 +1,21 @@
+package com.tanmoy.vpp.shard;
+
+import com.tanmoy.vpp.util.NameOrder;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * One battery of a keyset page read from a shard, in the order every shard
+ * returns them: name under the "C" collation, then id.
+ */
+public record ShardBatteryRow(UUID id, String name, int capacity) {
+
+    /** Matches {@code ORDER BY name COLLATE "C", id}; PostgreSQL compares uuids as unsigned bytes. */
+    public static final Comparator<ShardBatteryRow> NAME_ORDER = Comparator
+            .comparing(ShardBatteryRow::name, NameOrder.CODE_POINT)
+            .thenComparing(ShardBatteryRow::id, (a, b) -> {
+                int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+                return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+            });
+}
@@ -0,0 +1,77 @@
+package com.tanmoy.vpp.shard;
+
+import com.tanmoy.vpp.model.Battery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps postcodes to the {@link PostcodeShard} that owns them. Shard ranges must
+ * not overlap or leave gaps between them; postcodes below the first or above the
+ * last shard are rejected.
+ */
+public class ShardRouter {
+
+    private final List<PostcodeShard> shards;
+    private final int[] fromPostcodes;
+
+    public ShardRouter(List<PostcodeShard> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard must be configured");
+        }
+        List<PostcodeShard> sorted = new ArrayList<>(shards);
+        sorted.sort(Comparator.comparingInt(PostcodeShard::getFromPostcode));
+
+        for (int i = 1; i < sorted.size(); i++) {
+            PostcodeShard previous = sorted.get(i - 1);
+            PostcodeShard current = sorted.get(i);
+            if ((long) previous.getLastPostcode() + 1 != current.getFromPostcode()) {
+                throw new IllegalArgumentException("Shards " + previous + " and " + current
+                        + " must cover adjacent postcode ranges");
+            }
+        }
+
+        this.shards = List.copyOf(sorted);
+        this.fromPostcodes = sorted.stream().mapToInt(PostcodeShard::getFromPostcode).toArray();
+    }
+
+    public List<PostcodeShard> getShards() {
+        return shards;
+    }
+
+    public PostcodeShard shardFor(int postcode) {
+        int index = Arrays.binarySearch(fromPostcodes, postcode);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        if (index < 0 || !shards.get(index).contains(postcode)) {
+            throw new IllegalArgumentException("No shard owns postcode " + postcode);
+        }
+        return shards.get(index);
+    }
+
+    /** Shards holding any part of {@code [startPostcode, endPostcode]}, in postcode order. */
+    public List<PostcodeShard> overlapping(int startPostcode, int endPostcode) {
+        List<PostcodeShard> overlapping = new ArrayList<>();
+        for (PostcodeShard shard : shards) {
+            if (shard.overlaps(startPostcode, endPostcode)) {
+                overlapping.add(shard);
+            }
+        }
+        return overlapping;
+    }
+
+    /** Splits a batch by owning shard, keeping each shard's batteries in request order. */
+    public Map<PostcodeShard, List<Battery>> partition(List<Battery> batteries) {
+        Map<PostcodeShard, List<Battery>> byShard = new LinkedHashMap<>();
+        for (Battery battery : batteries) {
+            byShard.computeIfAbsent(shardFor(battery.getPostcodeNumeric()), shard -> new ArrayList<>())
+                    .add(battery);
+        }
+        return byShard;
+    }
+}
@@ -0,0 +1,11 @@
+package com.tanmoy.vpp.shard;
+
+import com.tanmoy.vpp.repository.projection.BatteryCapacityStats;
+
+import java.util.List;
+
+/**
+ * One shard's share of a range search: its matching names in name order and their stats.
+ */
+public record ShardSearchResult(List<String> names, BatteryCapacityStats stats) {
+}
@@ -0,0 +1,108 @@
+package com.tanmoy.vpp.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code vpp.sharding.*}: the PostgreSQL nodes of the {@code sharded} profile and
+ * the postcode range each one owns, e.g.
+ * <pre>
+ * vpp.sharding.shards[0].name=eu
+ * vpp.sharding.shards[0].from-postcode=0
+ * vpp.sharding.shards[0].to-postcode=5000
+ * vpp.sharding.shards[0].url=jdbc:postgresql://shard-eu:5432/vpp_db
+ * </pre>
+ * Ranges include {@code from-postcode} and exclude {@code to-postcode}; leaving
+ * {@code to-postcode} unset makes the last shard open-ended.
+ */
+@ConfigurationProperties("vpp.sharding")
+public class ShardingProperties {
+
+    private List<Shard> shards = new ArrayList<>();
+    private int maximumPoolSize = 10;
+    private int fanOutThreads = 8;
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public int getFanOutThreads() {
+        return fanOutThreads;
+    }
+
+    public void setFanOutThreads(int fanOutThreads) {
+        this.fanOutThreads = fanOutThreads;
+    }
+
+    public static class Shard {
+
+        private String name;
+        private int fromPostcode;
+        private Integer toPostcode;
+        private String url;
+        private String username;
+        private String password;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getFromPostcode() {
+            return fromPostcode;
+        }
+
+        public void setFromPostcode(int fromPostcode) {
+            this.fromPostcode = fromPostcode;
+        }
+
+        public Integer getToPostcode() {
+            return toPostcode;
+        }
+
+        public void setToPostcode(Integer toPostcode) {
+            this.toPostcode = toPostcode;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.tanmoy.vpp.util;
+
+import java.util.Comparator;
+
+/**
+ * The order search results are returned in: battery names compared by Unicode
+ * code point, which is what {@code ORDER BY name COLLATE "C"} produces in a
+ * UTF8 database. Anything that merges name lists in Java uses this so merged
+ * results stay in the same order as a single query.
+ *
+ * <p>It equals {@link String#compareTo(String)} except between a character
+ * outside the Basic Multilingual Plane (e.g. an emoji) and one in
+ * {@code U+E000..U+FFFF}: {@code compareTo} sees the first as a surrogate
+ * ({@code U+D800..U+DFFF}) and puts it first. {@code NameOrderContractTest}
+ * pins both behaviours against PostgreSQL.
+ */
+public final class NameOrder {
+
+    public static final Comparator<String> CODE_POINT = NameOrder::compare;
+
+    private NameOrder() {}
+
+    static int compare(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            char ca = a.charAt(i);
+            char cb = b.charAt(i);
+            if (ca != cb) {
+                boolean surrogateA = Character.isSurrogate(ca);
+                if (surrogateA != Character.isSurrogate(cb)) {
+                    // Only one side is above U+FFFF there, so it sorts last
+                    return surrogateA ? 1 : -1;
+                }
+                return ca - cb;
+            }
+        }
+        return a.length() - b.length();
+    }
+}
@@ -0,0 +1,17 @@
+package com.tanmoy.vpp.util;
+
+import com.tanmoy.vpp.exception.InvalidRangeException;
+
+public final class PostcodeRangeValidator {
+
+    private PostcodeRangeValidator() {}
+
+    public static void validate(int startPostcode, int endPostcode) {
+        if (startPostcode < 0 || endPostcode < 0) {
+            throw new InvalidRangeException("Postcodes must not be negative");
+        }
+        if (startPostcode > endPostcode) {
+            throw new InvalidRangeException("Start postcode must be less than or equal to end postcode");
+        }
+    }
+}
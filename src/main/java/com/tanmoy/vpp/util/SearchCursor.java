@@ -0,0 +1,48 @@
+package com.tanmoy.vpp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursor for paged searches: the name and id of the last battery
+ * on the previous page, base64url encoded as {@code <id>:<name>}.
+ */
+public final class SearchCursor {
+
+    private static final int UUID_LENGTH = 36;
+
+    private final String name;
+    private final UUID id;
+
+    public SearchCursor(String name, UUID id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = id + ":" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (raw.length() <= UUID_LENGTH || raw.charAt(UUID_LENGTH) != ':') {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            UUID id = UUID.fromString(raw.substring(0, UUID_LENGTH));
+            return new SearchCursor(raw.substring(UUID_LENGTH + 1), id);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
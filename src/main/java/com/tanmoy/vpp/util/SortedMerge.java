@@ -0,0 +1,83 @@
+package com.tanmoy.vpp.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * K-way merge of sources that are each already sorted, so results fetched in
+ * order from several shards or sub-ranges can be combined without re-sorting.
+ * Equal elements keep the order of their sources.
+ */
+public final class SortedMerge {
+
+    private SortedMerge() {}
+
+    public static <T> List<T> merge(List<? extends List<? extends T>> sorted, Comparator<? super T> order) {
+        if (sorted.size() == 1) {
+            return new ArrayList<>(sorted.get(0));
+        }
+
+        int size = 0;
+        List<Iterator<? extends T>> sources = new ArrayList<>(sorted.size());
+        for (List<? extends T> list : sorted) {
+            size += list.size();
+            sources.add(list.iterator());
+        }
+
+        List<T> merged = new ArrayList<>(size);
+        mergeIterators(sources, order).forEachRemaining(merged::add);
+        return merged;
+    }
+
+    /** Lazily merges the sources, pulling from each only as far as the output has been read. */
+    public static <T> Iterator<T> mergeIterators(List<? extends Iterator<? extends T>> sources, Comparator<? super T> order) {
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> {
+            int compared = order.compare(a.value, b.value);
+            return compared != 0 ? compared : Integer.compare(a.source, b.source);
+        });
+        for (int i = 0; i < sources.size(); i++) {
+            Iterator<? extends T> source = sources.get(i);
+            if (source.hasNext()) {
+                heads.add(new Head<>(source.next(), i, source));
+            }
+        }
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                Head<T> head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                T value = head.value;
+                if (head.iterator.hasNext()) {
+                    head.value = head.iterator.next();
+                    heads.add(head);
+                }
+                return value;
+            }
+        };
+    }
+
+    private static final class Head<T> {
+
+        private T value;
+        private final int source;
+        private final Iterator<? extends T> iterator;
+
+        Head(T value, int source, Iterator<? extends T> iterator) {
+            this.value = value;
+            this.source = source;
+            this.iterator = iterator;
+        }
+    }
+}
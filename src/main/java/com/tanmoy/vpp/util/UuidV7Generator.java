@@ -0,0 +1,24 @@
+package com.tanmoy.vpp.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates time-ordered version 7 UUIDs (RFC 9562) on the client side, so
+ * inserts do not depend on the database to assign identifiers and new rows
+ * land at the right-hand edge of the primary key index.
+ */
+public final class UuidV7Generator {
+
+    private UuidV7Generator() {}
+
+    public static UUID generate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long timestamp = System.currentTimeMillis() & 0xFFFFFFFFFFFFL;
+        long mostSigBits = (timestamp << 16) | 0x7000L | random.nextInt(1 << 12);
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,5 @@
+
+-- Ordered index for keyset pagination of search results by (name, id).
+-- Names use the "C" collation so index order matches String.compareTo;
+-- postcode and capacity are included so range filters are checked from the index.
+CREATE INDEX idx_name_id ON batteries (name COLLATE "C", id) INCLUDE (postcode_numeric, capacity);
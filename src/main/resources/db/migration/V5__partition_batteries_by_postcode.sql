@@ -0,0 +1,70 @@
+-- Range-partition batteries on postcode_numeric.
+--
+-- Each partition carries its own, smaller indexes, so inserts only maintain the
+-- index of the partition they land in, and range searches on postcode_numeric
+-- are pruned to the partitions they overlap (at execution time for prepared
+-- statements). Postcodes outside the declared ranges land in batteries_default.
+--
+-- A primary key on a partitioned table must contain the partition key, so it
+-- becomes (id, postcode_numeric). ids are generated as UUIDv7 by the application.
+
+ALTER TABLE batteries RENAME TO batteries_unpartitioned;
+
+CREATE TABLE batteries (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    name VARCHAR(255) NOT NULL,
+    postcode VARCHAR(10) NOT NULL,
+    capacity INTEGER NOT NULL,
+    postcode_numeric INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, postcode_numeric)
+) PARTITION BY RANGE (postcode_numeric);
+
+CREATE TABLE batteries_default PARTITION OF batteries DEFAULT;
+
+-- Partition management: carves [p_from, p_to) out of the default partition,
+-- moving any rows already stored there. No-op if the partition exists.
+-- Usage: SELECT create_batteries_partition(10000, 20000);
+CREATE OR REPLACE FUNCTION create_batteries_partition(p_from INT, p_to INT) RETURNS TEXT AS $$
+DECLARE
+    partition_name TEXT := format('batteries_p%s_%s', p_from, p_to);
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    LOCK TABLE batteries IN ACCESS EXCLUSIVE MODE;
+    ALTER TABLE batteries DETACH PARTITION batteries_default;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF batteries FOR VALUES FROM (%s) TO (%s)',
+                   partition_name, p_from, p_to);
+    EXECUTE format('INSERT INTO %I (id, name, postcode, capacity, postcode_numeric) '
+                   'SELECT id, name, postcode, capacity, postcode_numeric FROM batteries_default '
+                   'WHERE postcode_numeric >= %s AND postcode_numeric < %s',
+                   partition_name, p_from, p_to);
+    EXECUTE format('DELETE FROM batteries_default WHERE postcode_numeric >= %s AND postcode_numeric < %s',
+                   p_from, p_to);
+
+    ALTER TABLE batteries ATTACH PARTITION batteries_default DEFAULT;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- One partition per 1000 four-digit postcodes
+DO $$
+BEGIN
+    FOR i IN 0..9 LOOP
+        PERFORM create_batteries_partition(i * 1000, (i + 1) * 1000);
+    END LOOP;
+END;
+$$;
+
+INSERT INTO batteries (id, name, postcode, capacity, postcode_numeric)
+SELECT id, name, postcode, capacity, postcode_numeric FROM batteries_unpartitioned;
+
+DROP TABLE batteries_unpartitioned;
+
+-- Recreated on the partitioned parent; each partition gets its own copy
+CREATE INDEX idx_postcode_capacity ON batteries (postcode_numeric, capacity);
+CREATE INDEX idx_name_id ON batteries (name COLLATE "C", id) INCLUDE (postcode_numeric, capacity);
+
+ANALYZE batteries;
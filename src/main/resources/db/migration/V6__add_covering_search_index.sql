@@ -0,0 +1,46 @@
+-- Covering index for range searches: postcode range and capacity bounds are
+-- index conditions and name comes from the INCLUDE payload, so names + capacity
+-- searches and the capacity aggregates run as index-only scans. It replaces
+-- idx_postcode_capacity (same key columns), keeping a single index to maintain
+-- on insert.
+CREATE INDEX idx_postcode_capacity_name ON batteries (postcode_numeric, capacity) INCLUDE (name);
+DROP INDEX idx_postcode_capacity;
+
+-- Index-only scans skip the heap only for all-visible pages. Vacuum the
+-- insert-mostly partitions after 5% new rows (default 20%) so the visibility
+-- map keeps up with ingestion.
+DO $$
+DECLARE
+    part REGCLASS;
+BEGIN
+    FOR part IN SELECT inhrelid::regclass FROM pg_inherits WHERE inhparent = 'batteries'::regclass LOOP
+        EXECUTE format('ALTER TABLE %s SET (autovacuum_vacuum_insert_scale_factor = 0.05)', part);
+    END LOOP;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION create_batteries_partition(p_from INT, p_to INT) RETURNS TEXT AS $$
+DECLARE
+    partition_name TEXT := format('batteries_p%s_%s', p_from, p_to);
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    LOCK TABLE batteries IN ACCESS EXCLUSIVE MODE;
+    ALTER TABLE batteries DETACH PARTITION batteries_default;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF batteries FOR VALUES FROM (%s) TO (%s) '
+                   'WITH (autovacuum_vacuum_insert_scale_factor = 0.05)',
+                   partition_name, p_from, p_to);
+    EXECUTE format('INSERT INTO %I (id, name, postcode, capacity, postcode_numeric) '
+                   'SELECT id, name, postcode, capacity, postcode_numeric FROM batteries_default '
+                   'WHERE postcode_numeric >= %s AND postcode_numeric < %s',
+                   partition_name, p_from, p_to);
+    EXECUTE format('DELETE FROM batteries_default WHERE postcode_numeric >= %s AND postcode_numeric < %s',
+                   p_from, p_to);
+
+    ALTER TABLE batteries ATTACH PARTITION batteries_default DEFAULT;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,94 @@
+-- Per-postcode capacity rollup, so unfiltered range stats sum one row per
+-- postcode instead of scanning every battery.
+--
+-- Maintained by statement-level triggers on batteries: a multi-row INSERT or a
+-- COPY updates each affected postcode once via the transition table. Deletes
+-- and updates recompute the affected postcodes, since min/max cannot be
+-- decremented. Concurrent inserts into the same postcode serialize on its
+-- rollup row until commit.
+
+CREATE TABLE postcode_capacity_rollup (
+    postcode_numeric INT PRIMARY KEY,
+    battery_count BIGINT NOT NULL,
+    capacity_sum BIGINT NOT NULL,
+    capacity_min INT NOT NULL,
+    capacity_max INT NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION rollup_batteries_inserted() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO postcode_capacity_rollup AS r
+        (postcode_numeric, battery_count, capacity_sum, capacity_min, capacity_max)
+    SELECT postcode_numeric, COUNT(*), SUM(capacity), MIN(capacity), MAX(capacity)
+    FROM inserted
+    GROUP BY postcode_numeric
+    ORDER BY postcode_numeric
+    ON CONFLICT (postcode_numeric) DO UPDATE SET
+        battery_count = r.battery_count + EXCLUDED.battery_count,
+        capacity_sum = r.capacity_sum + EXCLUDED.capacity_sum,
+        capacity_min = LEAST(r.capacity_min, EXCLUDED.capacity_min),
+        capacity_max = GREATEST(r.capacity_max, EXCLUDED.capacity_max);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION rollup_recompute_postcodes(postcodes INT[]) RETURNS VOID AS $$
+BEGIN
+    DELETE FROM postcode_capacity_rollup WHERE postcode_numeric = ANY (postcodes);
+    INSERT INTO postcode_capacity_rollup
+        (postcode_numeric, battery_count, capacity_sum, capacity_min, capacity_max)
+    SELECT postcode_numeric, COUNT(*), SUM(capacity), MIN(capacity), MAX(capacity)
+    FROM batteries
+    WHERE postcode_numeric = ANY (postcodes)
+    GROUP BY postcode_numeric;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION rollup_batteries_deleted() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM rollup_recompute_postcodes(ARRAY(SELECT DISTINCT postcode_numeric FROM deleted));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION rollup_batteries_updated() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM rollup_recompute_postcodes(ARRAY(
+        SELECT postcode_numeric FROM old_rows
+        UNION
+        SELECT postcode_numeric FROM new_rows));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION rollup_batteries_truncated() RETURNS TRIGGER AS $$
+BEGIN
+    TRUNCATE postcode_capacity_rollup;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER batteries_rollup_insert
+    AFTER INSERT ON batteries
+    REFERENCING NEW TABLE AS inserted
+    FOR EACH STATEMENT EXECUTE FUNCTION rollup_batteries_inserted();
+
+CREATE TRIGGER batteries_rollup_delete
+    AFTER DELETE ON batteries
+    REFERENCING OLD TABLE AS deleted
+    FOR EACH STATEMENT EXECUTE FUNCTION rollup_batteries_deleted();
+
+CREATE TRIGGER batteries_rollup_update
+    AFTER UPDATE ON batteries
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION rollup_batteries_updated();
+
+CREATE TRIGGER batteries_rollup_truncate
+    AFTER TRUNCATE ON batteries
+    FOR EACH STATEMENT EXECUTE FUNCTION rollup_batteries_truncated();
+
+INSERT INTO postcode_capacity_rollup
+    (postcode_numeric, battery_count, capacity_sum, capacity_min, capacity_max)
+SELECT postcode_numeric, COUNT(*), SUM(capacity), MIN(capacity), MAX(capacity)
+FROM batteries
+GROUP BY postcode_numeric;
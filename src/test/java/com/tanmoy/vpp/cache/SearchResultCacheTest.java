@@ -0,0 +1,156 @@
+package com.tanmoy.vpp.cache;
+
+import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import com.tanmoy.vpp.event.BatteriesSavedEvent;
+import com.tanmoy.vpp.model.Battery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SearchResultCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SearchResultCache(meterRegistry, true, 100, 10, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    private BatterySearchResponseDto search(int start, int end, Integer min, Integer max) {
+        return cache.get(new SearchKey(start, end, min, max), key -> {
+            loads.incrementAndGet();
+            return new BatterySearchResponseDto(List.of(), 0, 0.0);
+        });
+    }
+
+    @Test
+    void shouldServeRepeatedSearchFromCache() {
+        search(6000, 6100, null, null);
+        search(6000, 6100, null, null);
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldCacheExtendedStatsSearchSeparately() {
+        search(6000, 6100, null, null);
+        cache.get(new SearchKey(6000, 6100, null, null, true), key -> {
+            loads.incrementAndGet();
+            return new BatterySearchResponseDto(List.of(), 0, 0.0);
+        });
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void shouldOnlyInvalidateRangesContainingInsertedPostcodes() {
+        search(6000, 6100, null, null);
+        search(7000, 7100, null, null);
+
+        cache.onBatteriesSaved(BatteriesSavedEvent.of(List.of(Battery.of("New", "6050", 1000))));
+
+        search(6000, 6100, null, null);
+        search(7000, 7100, null, null);
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void shouldKeepEntriesWhoseCapacityBoundsExcludeInsertedBattery() {
+        search(6000, 6100, 5000, null);
+        search(6000, 6100, null, 2000);
+
+        cache.onBatteriesSaved(BatteriesSavedEvent.of(List.of(Battery.of("New", "6050", 1000))));
+
+        assertThat(cache.size()).isEqualTo(1);
+        search(6000, 6100, 5000, null);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void shouldInvalidateByPostcodeSpanForBulkImports() {
+        search(6000, 6100, null, null);
+        search(6200, 6300, null, null);
+        search(8000, 8100, null, null);
+
+        cache.onBatteriesSaved(BatteriesSavedEvent.bulk(6100, 6200, 5000));
+
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLoadEveryTimeWhenDisabled() {
+        cache = new SearchResultCache(meterRegistry, false, 100, 10, Duration.ofMinutes(1));
+
+        search(6000, 6100, null, null);
+        search(6000, 6100, null, null);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void shouldNotCacheResponsesAboveRowThreshold() {
+        for (int i = 0; i < 2; i++) {
+            cache.get(new SearchKey(6000, 9000, null, null), key -> {
+                loads.incrementAndGet();
+                return new BatterySearchResponseDto(Collections.nCopies(11, "Battery"), 11_000, 1000.0);
+            });
+        }
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.size()).isZero();
+        assertThat(cache.indexedKeys()).isZero();
+    }
+
+    @Test
+    void shouldInvalidateWideAndNarrowRangesContainingInsertedPostcode() {
+        search(0, 9_999_999, null, null);
+        search(6040, 6060, null, null);
+        search(6051, 6060, null, null);
+        search(4096, 8191, null, null);
+
+        cache.onBatteriesSaved(BatteriesSavedEvent.of(List.of(Battery.of("New", "6050", 1000))));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.indexedKeys()).isEqualTo(1);
+        search(6051, 6060, null, null);
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void shouldInvalidateRangeStartingBelowZero() {
+        search(-5, 20000, null, null);
+
+        assertThat(cache.indexedKeys()).isEqualTo(1);
+        cache.onBatteriesSaved(BatteriesSavedEvent.of(List.of(Battery.of("New", "6050", 1000))));
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.indexedKeys()).isZero();
+    }
+
+    @Test
+    void shouldIndexAndInvalidateFullIntRange() {
+        search(-1, Integer.MAX_VALUE, null, null);
+        search(Integer.MIN_VALUE, Integer.MAX_VALUE, null, null);
+        search(0, Integer.MAX_VALUE, null, null);
+
+        assertThat(cache.indexedKeys()).isEqualTo(3);
+        cache.onBatteriesSaved(BatteriesSavedEvent.bulk(1000, 9999, 5000));
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.indexedKeys()).isZero();
+    }
+}
@@ -0,0 +1,43 @@
+package com.tanmoy.vpp.config;
+
+import com.tanmoy.vpp.cache.SearchResultCache;
+import com.tanmoy.vpp.controller.BatteryController;
+import com.tanmoy.vpp.index.BatteryCapacityIndex;
+import com.tanmoy.vpp.ingest.IngestionQueue;
+import com.tanmoy.vpp.logging.RequestLogSamplingFilter;
+import com.tanmoy.vpp.metrics.JpaFlushMetrics;
+import com.tanmoy.vpp.service.impl.BatteryImportServiceImpl;
+import com.tanmoy.vpp.service.impl.BatteryServiceImpl;
+import com.tanmoy.vpp.service.impl.CachingBatteryService;
+import com.tanmoy.vpp.service.impl.GroupCommitBatteryWriter;
+import com.tanmoy.vpp.service.impl.ParallelRangeSearcher;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The blocking stack is built on the JDBC pool and JPA, which the {@code reactive}
+ * profile does not create, so none of its beans may be registered there.
+ */
+class ReactiveProfileBeansTest {
+
+    private static final Class<?>[] BLOCKING_BEANS = {
+            BatteryController.class, CachingBatteryService.class, BatteryServiceImpl.class,
+            BatteryImportServiceImpl.class, IngestionQueue.class, GroupCommitBatteryWriter.class,
+            ParallelRangeSearcher.class, BatteryCapacityIndex.class, SearchResultCache.class,
+            JpaFlushMetrics.class, RequestLogSamplingFilter.class};
+
+    @Test
+    void shouldNotRegisterBlockingBeansUnderReactiveProfile() {
+        new ApplicationContextRunner()
+                .withPropertyValues("spring.profiles.active=" + ReactiveStackAutoConfigurationFilter.REACTIVE_PROFILE)
+                .withUserConfiguration(BLOCKING_BEANS)
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    for (Class<?> bean : BLOCKING_BEANS) {
+                        assertThat(context).doesNotHaveBean(bean);
+                    }
+                });
+    }
+}
@@ -0,0 +1,109 @@
+package com.tanmoy.vpp.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Imports only the R2DBC or only the JDBC pool auto-configurations, with a URL
+ * set and no exclusions, and checks that the filter alone decides whether they
+ * apply. Creating either pool does not connect, so no database is needed.
+ */
+class ReactiveStackAutoConfigurationFilterTest {
+
+    @ImportAutoConfiguration({R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class,
+            R2dbcDataAutoConfiguration.class})
+    static class R2dbcOnly {
+    }
+
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class})
+    static class JdbcOnly {
+    }
+
+    @Nested
+    @SpringBootTest(classes = R2dbcOnly.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+            properties = "spring.r2dbc.url=r2dbc:postgresql://localhost:5432/vpp_db")
+    class DefaultProfile {
+
+        @Autowired
+        private ApplicationContext context;
+
+        @Test
+        void shouldNotCreateR2dbcConnectionFactory() {
+            assertThat(context.getBeanNamesForType(ConnectionFactory.class)).isEmpty();
+        }
+    }
+
+    @Nested
+    @SpringBootTest(classes = R2dbcOnly.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+            properties = "spring.r2dbc.url=r2dbc:postgresql://localhost:5432/vpp_db")
+    @ActiveProfiles({"sharded", "replica"})
+    class OtherProfiles {
+
+        @Autowired
+        private ApplicationContext context;
+
+        @Test
+        void shouldNotCreateR2dbcConnectionFactory() {
+            assertThat(context.getBeanNamesForType(ConnectionFactory.class)).isEmpty();
+        }
+    }
+
+    @Nested
+    @SpringBootTest(classes = R2dbcOnly.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+            properties = "spring.r2dbc.url=r2dbc:postgresql://localhost:5432/vpp_db")
+    @ActiveProfiles(ReactiveStackAutoConfigurationFilter.REACTIVE_PROFILE)
+    class ReactiveProfile {
+
+        @Autowired
+        private ApplicationContext context;
+
+        @Test
+        void shouldCreateR2dbcConnectionFactory() {
+            assertThat(context.getBeanNamesForType(ConnectionFactory.class)).isNotEmpty();
+        }
+    }
+
+    @Nested
+    @SpringBootTest(classes = JdbcOnly.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+            properties = "spring.datasource.url=jdbc:postgresql://localhost:5432/vpp_db")
+    class DefaultProfileJdbc {
+
+        @Autowired
+        private ApplicationContext context;
+
+        @Test
+        void shouldCreateDataSource() {
+            assertThat(context.getBeanNamesForType(DataSource.class)).isNotEmpty();
+        }
+    }
+
+    @Nested
+    @SpringBootTest(classes = JdbcOnly.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+            properties = "spring.datasource.url=jdbc:postgresql://localhost:5432/vpp_db")
+    @ActiveProfiles(ReactiveStackAutoConfigurationFilter.REACTIVE_PROFILE)
+    class ReactiveProfileJdbc {
+
+        @Autowired
+        private ApplicationContext context;
+
+        @Test
+        void shouldNotCreateDataSource() {
+            assertThat(context.getBeanNamesForType(DataSource.class)).isEmpty();
+        }
+    }
+}
@@ -3,8 +3,18 @@ package com.tanmoy.vpp.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tanmoy.vpp.dto.request.BatteryListRequest;
 import com.tanmoy.vpp.dto.request.BatteryRequestDto;
+import com.tanmoy.vpp.dto.response.BatterySearchPageResponseDto;
 import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import com.tanmoy.vpp.dto.response.BatterySearchSummaryDto;
+import com.tanmoy.vpp.dto.response.CapacityBucketDto;
+import com.tanmoy.vpp.dto.response.CapacityDistributionDto;
 import com.tanmoy.vpp.exception.InvalidRangeException;
+import com.tanmoy.vpp.exception.InvalidBatteryRowException;
+import com.tanmoy.vpp.exception.IngestionQueueFullException;
+import com.tanmoy.vpp.ingest.IngestionJob;
+import com.tanmoy.vpp.ingest.IngestionQueue;
+import com.tanmoy.vpp.metrics.BatteryMetrics;
+import com.tanmoy.vpp.service.BatteryImportService;
 import com.tanmoy.vpp.service.BatteryService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -13,18 +23,27 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,6 +57,15 @@ public class BatteryControllerTest {
     @MockitoBean
     private BatteryService batteryService;
 
+    @MockitoBean
+    private BatteryImportService batteryImportService;
+
+    @MockitoBean
+    private BatteryMetrics batteryMetrics;
+
+    @MockitoBean
+    private IngestionQueue ingestionQueue;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -60,7 +88,10 @@ public class BatteryControllerTest {
                 Arguments.of(newBattery("Battery", null, 1000), "postcode", "Postcode is required"),
                 Arguments.of(newBattery("Battery", "6000", null), "capacity", "Capacity is required"),
                 Arguments.of(newBattery("Battery", "01234567890", 1000), "postcode", "Postcode must be between 4 to 10 digits"),
-                Arguments.of(newBattery("Battery", "6000", -1), "capacity", "Capacity must be a positive number")
+                Arguments.of(newBattery("Battery", "6000", -1), "capacity", "Capacity must be a positive number"),
+                Arguments.of(newBattery("a".repeat(256), "6000", 1000), "name", "Battery name must be at most 255 characters"),
+                Arguments.of(newBattery("Bat\u0000tery", "6000", 1000), "name",
+                        "Battery name must not contain NUL or unpaired surrogate characters")
         );
     }
 
@@ -72,6 +103,18 @@ public class BatteryControllerTest {
         return dto;
     }
 
+    @Test
+    void shouldReturnBadRequestForUnpairedSurrogateInName() throws Exception {
+        String json = "{\"batteries\":[{\"name\":\"Battery \\ud83d\",\"postcode\":\"6000\",\"capacity\":1000}]}";
+
+        mockMvc.perform(post("/api/batteries")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldErrors['batteries[0].name']")
+                        .value("Battery name must not contain NUL or unpaired surrogate characters"));
+    }
+
     @Test
     void shouldReturnBadRequestForMalformedJson() throws Exception {
         String badJson = "[{ \"name\": \"Battery\", \"postcode\": \"6000\", \"capacity\": \"oops\" }]";
@@ -102,6 +145,21 @@ public class BatteryControllerTest {
                 .andExpect(jsonPath("$.message").value("Saved 1 batteries successfully."));
     }
 
+    @Test
+    void shouldAcceptNamesOutsideBasicMultilingualPlane() throws Exception {
+        BatteryListRequest request = new BatteryListRequest();
+        request.setBatteries(List.of(newBattery("Battery \ud83d\udd0b", "6000", 1000),
+                newBattery("\ud840\udc0b Battery", "6001", 2000)));
+
+        Mockito.doNothing().when(batteryService).saveAll(anyList());
+
+        mockMvc.perform(post("/api/batteries")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message").value("Saved 2 batteries successfully."));
+    }
+
     @Test
     void shouldReturnBadRequestWhenBatteryListIsEmpty() throws Exception {
         BatteryListRequest request = new BatteryListRequest();
@@ -171,6 +229,35 @@ public class BatteryControllerTest {
                 .andExpect(jsonPath("$.averageWattCapacity").value(1500.0));
     }
 
+    @Test
+    void shouldReturnCapacityDistributionOnlyWhenExtendedStatsRequested() throws Exception {
+
+        BatterySearchResponseDto extended = new BatterySearchResponseDto(List.of("Alpha", "Beta"), 3000L, 1500.0);
+        extended.setCapacityDistribution(new CapacityDistributionDto(1000, 2000, 1000, 2000, 2000, List.of(
+                new CapacityBucketDto(1000, 1500, 1), new CapacityBucketDto(1501, 2000, 1))));
+
+        when(batteryService.getBatteriesWithDistributionByPostcodeRange(
+                6000, 6002, null, null)).thenReturn(extended);
+        when(batteryService.getBatteriesByPostcodeRange(
+                6000, 6002, null, null)).thenReturn(new BatterySearchResponseDto(List.of("Alpha", "Beta"), 3000L, 1500.0));
+
+        mockMvc.perform(get("/api/batteries/search")
+                        .param("startPostcode", "6000")
+                        .param("endPostcode", "6002")
+                        .param("extendedStats", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.capacityDistribution.p50WattCapacity").value(1000))
+                .andExpect(jsonPath("$.capacityDistribution.p99WattCapacity").value(2000))
+                .andExpect(jsonPath("$.capacityDistribution.buckets[1].fromWattCapacity").value(1501))
+                .andExpect(jsonPath("$.capacityDistribution.buckets[1].batteryCount").value(1));
+
+        mockMvc.perform(get("/api/batteries/search")
+                        .param("startPostcode", "6000")
+                        .param("endPostcode", "6002"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.capacityDistribution").doesNotExist());
+    }
+
     @Test
     void shouldReturnBadRequestForInvalidPostcodeParam() throws Exception {
 
@@ -211,4 +298,190 @@ public class BatteryControllerTest {
                 .andExpect(jsonPath("$.totalWattCapacity").value(0))
                 .andExpect(jsonPath("$.averageWattCapacity").value(0.0));
     }
+
+    @Test
+    void shouldImportCsvStream() throws Exception {
+
+        when(batteryImportService.importCsv(any())).thenReturn(2L);
+
+        mockMvc.perform(post("/api/batteries/import")
+                        .contentType("text/csv")
+                        .content("name,postcode,capacity\nAlpha,6000,1000\nBeta,6001,2000\n"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message").value("Imported 2 batteries successfully."));
+    }
+
+    @Test
+    void shouldImportNdjsonStream() throws Exception {
+
+        when(batteryImportService.importNdjson(any())).thenReturn(1L);
+
+        mockMvc.perform(post("/api/batteries/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"name\":\"Alpha\",\"postcode\":\"6000\",\"capacity\":1000}\n"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message").value("Imported 1 batteries successfully."));
+    }
+
+    @Test
+    void shouldImportJsonStream() throws Exception {
+
+        when(batteryImportService.importJson(any())).thenReturn(1L);
+
+        mockMvc.perform(post("/api/batteries/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"batteries\":[{\"name\":\"Alpha\",\"postcode\":\"6000\",\"capacity\":1000}]}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message").value("Imported 1 batteries successfully."));
+    }
+
+    @Test
+    void shouldReturnBadRequestForInvalidImportRow() throws Exception {
+
+        when(batteryImportService.importCsv(any()))
+                .thenThrow(new InvalidBatteryRowException(3, "capacity must be a number"));
+
+        mockMvc.perform(post("/api/batteries/import")
+                        .contentType("text/csv")
+                        .content("Alpha,6000,1000\nBeta,6001,2000\nGamma,6002,oops\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid battery at line 3: capacity must be a number"));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenDatabaseRejectsImportedData() throws Exception {
+
+        when(batteryImportService.importCsv(any()))
+                .thenThrow(new DataIntegrityViolationException("invalid byte sequence for encoding \"UTF8\""));
+
+        mockMvc.perform(post("/api/batteries/import")
+                        .contentType("text/csv")
+                        .content("Alpha,6000,1000\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid data"));
+    }
+
+    @Test
+    void shouldRejectUnsupportedImportContentType() throws Exception {
+
+        mockMvc.perform(post("/api/batteries/import")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<batteries/>"))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(jsonPath("$.message").value("Unsupported content type: application/xml"));
+    }
+
+    @Test
+    void shouldReturnSearchPageWithNextCursor() throws Exception {
+
+        BatterySearchPageResponseDto page = new BatterySearchPageResponseDto(
+                List.of("Alpha", "Beta"), 3, 6000L, 2000.0, "next");
+
+        when(batteryService.getBatteryPageByPostcodeRange(6000, 6002, null, null, 2, null)).thenReturn(page);
+
+        mockMvc.perform(get("/api/batteries/search/page")
+                        .param("startPostcode", "6000")
+                        .param("endPostcode", "6002")
+                        .param("pageSize", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.batteryNames[1]").value("Beta"))
+                .andExpect(jsonPath("$.totalBatteries").value(3))
+                .andExpect(jsonPath("$.totalWattCapacity").value(6000))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void shouldReturnStatsWithoutNames() throws Exception {
+
+        when(batteryService.getBatteryStatsByPostcodeRange(6000, 6999, null, null))
+                .thenReturn(new BatterySearchSummaryDto(4, 10000L, 2500.0));
+
+        mockMvc.perform(get("/api/batteries/search/stats")
+                        .param("startPostcode", "6000")
+                        .param("endPostcode", "6999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBatteries").value(4))
+                .andExpect(jsonPath("$.totalWattCapacity").value(10000))
+                .andExpect(jsonPath("$.averageWattCapacity").value(2500.0))
+                .andExpect(jsonPath("$.batteryNames").doesNotExist());
+    }
+
+    @Test
+    void shouldStreamNamesAndSummaryAsNdjson() throws Exception {
+
+        when(batteryService.streamBatteriesByPostcodeRange(eq(6000), eq(6002), isNull(), isNull(), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<String> consumer = invocation.getArgument(4);
+                    consumer.accept("Alpha");
+                    consumer.accept("Beta \"B\"");
+                    return new BatterySearchSummaryDto(2, 3000L, 1500.0);
+                });
+
+        MvcResult result = mockMvc.perform(get("/api/batteries/search")
+                        .accept("application/x-ndjson")
+                        .param("startPostcode", "6000")
+                        .param("endPostcode", "6002"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"name\":\"Alpha\"}\n"
+                                + "{\"name\":\"Beta \\\"B\\\"\"}\n"
+                                + "{\"totalBatteries\":2,\"totalWattCapacity\":3000,\"averageWattCapacity\":1500.0}\n"));
+    }
+
+    @Test
+    void shouldRejectInvalidRangeBeforeStreaming() throws Exception {
+
+        mockMvc.perform(get("/api/batteries/search")
+                        .accept("application/x-ndjson", "application/json")
+                        .param("startPostcode", "6002")
+                        .param("endPostcode", "6000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldAcceptBatteriesForAsyncIngestion() throws Exception {
+        BatteryListRequest request = new BatteryListRequest();
+        request.setBatteries(List.of(newBattery("AsyncBattery", "6000", 1000)));
+
+        UUID jobId = UUID.randomUUID();
+        when(ingestionQueue.submit(anyList())).thenAnswer(invocation ->
+                new IngestionJob(jobId, invocation.getArgument(0)));
+
+        mockMvc.perform(post("/api/batteries/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/batteries/jobs/" + jobId))
+                .andExpect(jsonPath("$.jobId").value(jobId.toString()))
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.batteryCount").value(1));
+    }
+
+    @Test
+    void shouldReturnTooManyRequestsWhenIngestionQueueIsFull() throws Exception {
+        BatteryListRequest request = new BatteryListRequest();
+        request.setBatteries(List.of(newBattery("AsyncBattery", "6000", 1000)));
+
+        when(ingestionQueue.submit(anyList())).thenThrow(new IngestionQueueFullException("Ingestion queue is full, retry later"));
+
+        mockMvc.perform(post("/api/batteries/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.message").value("Ingestion queue is full, retry later"));
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownIngestionJob() throws Exception {
+        when(ingestionQueue.find(any())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/batteries/jobs/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
 }
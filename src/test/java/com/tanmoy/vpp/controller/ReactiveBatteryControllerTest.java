@@ -0,0 +1,123 @@
+package com.tanmoy.vpp.controller;
+
+import com.tanmoy.vpp.dto.request.BatteryListRequest;
+import com.tanmoy.vpp.dto.request.BatteryRequestDto;
+import com.tanmoy.vpp.dto.response.BatteryNameDto;
+import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import com.tanmoy.vpp.dto.response.BatterySearchSummaryDto;
+import com.tanmoy.vpp.exception.InvalidRangeException;
+import com.tanmoy.vpp.metrics.BatteryMetrics;
+import com.tanmoy.vpp.service.ReactiveBatteryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveBatteryController.class)
+@ActiveProfiles("reactive")
+public class ReactiveBatteryControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private ReactiveBatteryService batteryService;
+
+    @MockitoBean
+    private BatteryMetrics batteryMetrics;
+
+    @Test
+    void shouldInsertBatteriesSuccessfully() {
+        BatteryRequestDto battery = new BatteryRequestDto();
+        battery.setName("ValidBattery");
+        battery.setPostcode("6000");
+        battery.setCapacity(1000);
+
+        BatteryListRequest request = new BatteryListRequest();
+        request.setBatteries(List.of(battery));
+
+        when(batteryService.saveAll(anyList())).thenReturn(Mono.just(1L));
+
+        webTestClient.post().uri("/api/batteries")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Saved 1 batteries successfully.");
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenBatteryListIsEmpty() {
+        BatteryListRequest request = new BatteryListRequest();
+        request.setBatteries(Collections.emptyList());
+
+        webTestClient.post().uri("/api/batteries")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Validation failed")
+                .jsonPath("$.fieldErrors.batteries").exists();
+    }
+
+    @Test
+    void shouldReturnBatteryStatsWhenValidRangeProvided() {
+        when(batteryService.getBatteriesByPostcodeRange(6000, 6002, null, null))
+                .thenReturn(Mono.just(new BatterySearchResponseDto(List.of("Alpha", "Beta"), 3000L, 1500.0)));
+
+        webTestClient.get().uri("/api/batteries/search?startPostcode=6000&endPostcode=6002")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.batteryNames[0]").isEqualTo("Alpha")
+                .jsonPath("$.totalWattCapacity").isEqualTo(3000)
+                .jsonPath("$.averageWattCapacity").isEqualTo(1500.0);
+    }
+
+    @Test
+    void shouldStreamNamesThenSummaryAsNdjson() {
+        when(batteryService.streamBatteriesByPostcodeRange(6000, 6002, null, null))
+                .thenReturn(Flux.just(new BatteryNameDto("Alpha"), new BatteryNameDto("Beta"),
+                        new BatterySearchSummaryDto(2, 3000L, 1500.0)));
+
+        String body = webTestClient.get().uri("/api/batteries/search?startPostcode=6000&endPostcode=6002")
+                .accept(MediaType.parseMediaType(BatteryController.APPLICATION_NDJSON_VALUE))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(body).isNotNull();
+        assertThat(body.trim().split("\n")).containsExactly(
+                "{\"name\":\"Alpha\"}",
+                "{\"name\":\"Beta\"}",
+                "{\"totalBatteries\":2,\"totalWattCapacity\":3000,\"averageWattCapacity\":1500.0}");
+    }
+
+    @Test
+    void shouldReturnBadRequestForInvalidRange() {
+        when(batteryService.getBatteriesByPostcodeRange(6002, 6000, null, null))
+                .thenThrow(new InvalidRangeException("Start postcode must be less than or equal to end postcode"));
+
+        webTestClient.get().uri("/api/batteries/search?startPostcode=6002&endPostcode=6000")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").exists();
+    }
+}
@@ -0,0 +1,108 @@
+package com.tanmoy.vpp.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource first;
+    private DataSource second;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setup() {
+        primary = mock(DataSource.class);
+        first = mock(DataSource.class);
+        second = mock(DataSource.class);
+        routing = new ReplicaRoutingDataSource(primary,
+                ReplicaRoutingDataSource.named(List.of(first, second)),
+                Duration.ofSeconds(5), Duration.ofSeconds(2));
+    }
+
+    @Test
+    void shouldRoundRobinAcrossHealthyReplicas() throws SQLException {
+        lag(first, 0);
+        lag(second, 1.5);
+        routing.checkReplicas();
+
+        assertThat(List.of(routing.determineCurrentLookupKey(), routing.determineCurrentLookupKey(),
+                routing.determineCurrentLookupKey()))
+                .containsExactly("replica-1", "replica-2", "replica-1");
+    }
+
+    @Test
+    void shouldSkipReplicaThatIsTooFarBehind() throws SQLException {
+        lag(first, 30);
+        lag(second, 0);
+        routing.checkReplicas();
+
+        assertThat(routing.usableReplicas()).containsExactly("replica-2");
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-2");
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-2");
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenNoReplicaIsUsable() throws SQLException {
+        lag(first, 30);
+        when(second.getConnection()).thenThrow(new SQLException("connection refused"));
+        routing.checkReplicas();
+
+        assertThat(routing.usableReplicas()).isEmpty();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void shouldRouteToPrimaryBeforeFirstCheck() {
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void shouldRouteToReplicaAgainOnceItRecovers() throws SQLException {
+        when(first.getConnection()).thenThrow(new SQLException("connection refused"));
+        lag(second, 30);
+        routing.checkReplicas();
+        assertThat(routing.usableReplicas()).isEmpty();
+
+        lag(second, 0.2);
+        routing.checkReplicas();
+
+        assertThat(routing.usableReplicas()).containsExactly("replica-2");
+    }
+
+    @Test
+    void shouldResolvePrimaryAndReplicaTargets() {
+        routing.afterPropertiesSet();
+        try {
+            assertThat(routing.getResolvedDataSources())
+                    .isEqualTo(Map.of("primary", primary, "replica-1", first, "replica-2", second));
+        } finally {
+            routing.close();
+        }
+    }
+
+    private static void lag(DataSource replica, double seconds) throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(seconds);
+    }
+}
@@ -0,0 +1,137 @@
+package com.tanmoy.vpp.datasource;
+
+import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.service.BatteryService;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Primary plus one streaming replica, set up with the same scripts as the
+ * {@code database-replica} service in docker-compose.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "vpp.datasource.replica.max-lag=5s",
+        "vpp.datasource.replica.check-interval=200ms"
+})
+@ActiveProfiles("replica")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReplicaRoutingIntegrationTest {
+
+    private static final Network network = Network.newNetwork();
+
+    @Container
+    static final PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("vpp_test")
+            .withUsername("testuser")
+            .withPassword("testpass")
+            .withNetwork(network)
+            .withNetworkAliases("primary")
+            .withCopyFileToContainer(MountableFile.forHostPath("docker/postgres/primary-init.sh"),
+                    "/docker-entrypoint-initdb.d/primary-init.sh");
+
+    @Container
+    static final GenericContainer<?> replica = new GenericContainer<>("postgres:15")
+            .dependsOn(primary)
+            .withNetwork(network)
+            .withEnv("PRIMARY_HOST", "primary")
+            .withEnv("REPLICATION_USER", "testuser")
+            .withEnv("REPLICATION_PASSWORD", "testpass")
+            .withCopyFileToContainer(MountableFile.forHostPath("docker/postgres/replica-entrypoint.sh"),
+                    "/docker/replica-entrypoint.sh")
+            .withCreateContainerCmdModifier(cmd -> cmd.withEntrypoint("bash", "/docker/replica-entrypoint.sh"))
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forLogMessage(".*database system is ready to accept read-only connections.*\\s", 1)
+                    .withStartupTimeout(Duration.ofMinutes(2)));
+
+    @DynamicPropertySource
+    static void registerProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("vpp.datasource.replica.urls", () -> "jdbc:postgresql://" + replica.getHost() + ":"
+                + replica.getMappedPort(5432) + "/vpp_test");
+    }
+
+    @Autowired
+    private BatteryService batteryService;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @Order(1)
+    void shouldSendReadOnlyTransactionsToReplicaAndOthersToPrimary() {
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> replicaRoutingDataSource.usableReplicas().contains("replica-1"));
+
+        assertThat(inRecovery(true)).isTrue();
+        assertThat(inRecovery(false)).isFalse();
+    }
+
+    @Test
+    @Order(2)
+    void shouldServeSearchesFromReplicaOnceReplicated() {
+        batteryService.saveAll(List.of(
+                Battery.of("Alpha", "6000", 1000),
+                Battery.of("Beta", "6001", 2000)));
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            BatterySearchResponseDto response = batteryService.getBatteriesByPostcodeRange(6000, 6001, null, null);
+            assertThat(response.getBatteryNames()).containsExactly("Alpha", "Beta");
+        });
+    }
+
+    @Test
+    @Order(3)
+    void shouldFallBackToPrimaryWhenReplicaIsDown() {
+        replica.stop();
+        replicaRoutingDataSource.checkReplicas();
+
+        assertThat(replicaRoutingDataSource.usableReplicas()).isEmpty();
+        assertThat(inRecovery(true)).isFalse();
+        assertThat(batteryService.getBatteriesByPostcodeRange(6000, 6001, null, null).getBatteryNames())
+                .containsExactly("Alpha", "Beta");
+    }
+
+    private Boolean inRecovery(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+    }
+}
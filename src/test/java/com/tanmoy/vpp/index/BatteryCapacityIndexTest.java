@@ -0,0 +1,153 @@
+package com.tanmoy.vpp.index;
+
+import com.tanmoy.vpp.BasePostgresTest;
+import com.tanmoy.vpp.event.BatteriesSavedEvent;
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.repository.projection.BatteryCapacityStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Exercises the index against PostgreSQL with a refresh interval long enough
+ * that only the initial load and explicitly triggered rebuilds run.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "vpp.search.index.enabled=true",
+        "vpp.search.index.refresh-interval=1h"
+})
+class BatteryCapacityIndexTest extends BasePostgresTest {
+
+    @Autowired
+    private BatteryCapacityIndex index;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE batteries");
+        index.rebuild();
+    }
+
+    @Test
+    void shouldMergeCommittedInsertsIntoIndex() {
+        save(List.of(Battery.of("Alpha", "6000", 1000), Battery.of("Beta", "6001", 2000)), null);
+
+        assertThat(count()).isEqualTo(2);
+        assertThat(index.stats(6000, 6001, null, null).orElseThrow().getTotalCapacity()).isEqualTo(3000);
+    }
+
+    @Test
+    void shouldNotDoubleCountCommitRacingRebuild() throws Exception {
+        // The insert commits, then stalls before its delta is recorded: the window the rebuild must not overlap
+        CountDownLatch committed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() ->
+                save(List.of(Battery.of("Alpha", "6000", 1000)), () -> {
+                    committed.countDown();
+                    awaitLatch(release);
+                }));
+        assertThat(committed.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(index::rebuild);
+        Thread.sleep(300);
+        assertThat(rebuild).isNotDone();
+
+        release.countDown();
+        writer.get(10, TimeUnit.SECONDS);
+        rebuild.get(10, TimeUnit.SECONDS);
+
+        assertThat(count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReplayCommitsMadeDuringRebuildScan() {
+        save(List.of(Battery.of("Alpha", "6000", 1000)), null);
+        index.rebuild();
+        save(List.of(Battery.of("Beta", "6001", 2000)), null);
+
+        assertThat(count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepTotalsWhenCompactingDeltaIntoBase() {
+        save(List.of(Battery.of("Alpha", "6000", 1000), Battery.of("Beta", "7000", 2000)), null);
+
+        index.compact();
+
+        assertThat(count()).isEqualTo(2);
+        assertThat(index.stats(6000, 6999, null, null).orElseThrow().getTotalCapacity()).isEqualTo(1000);
+    }
+
+    @Test
+    void shouldDropIndexUntilRebuiltAfterBulkImport() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO batteries (id, name, postcode, capacity, postcode_numeric) "
+                    + "VALUES (gen_random_uuid(), 'Bulk', '6000', 500, 6000)");
+            eventPublisher.publishEvent(BatteriesSavedEvent.bulk(6000, 6000, 1));
+        });
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> index.stats(0, 9999, null, null).isPresent());
+        assertThat(count()).isEqualTo(1);
+    }
+
+    private void save(List<Battery> batteries, Runnable afterCommit) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (Battery battery : batteries) {
+                jdbcTemplate.update("INSERT INTO batteries (id, name, postcode, capacity, postcode_numeric) "
+                                + "VALUES (?, ?, ?, ?, ?)",
+                        battery.getId(), battery.getName(), battery.getPostcode(),
+                        battery.getCapacity(), battery.getPostcodeNumeric());
+            }
+            eventPublisher.publishEvent(BatteriesSavedEvent.of(batteries));
+            if (afterCommit != null) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        afterCommit.run();
+                    }
+                });
+            }
+        });
+    }
+
+    private long count() {
+        BatteryCapacityStats stats = index.stats(0, 9999, null, null).orElseThrow();
+        return stats.getBatteryCount();
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.tanmoy.vpp.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CapacityAggregatorTest {
+
+    @Test
+    void shouldAggregateCountSumMinMaxAndNamesInOnePass() {
+        CapacityAggregator aggregator = new CapacityAggregator(3);
+
+        aggregator.accept("Alpha", 2000);
+        aggregator.accept("Beta", 500);
+        aggregator.accept("Gamma", 3500);
+
+        assertThat(aggregator.names()).containsExactly("Alpha", "Beta", "Gamma");
+        assertThat(aggregator.getBatteryCount()).isEqualTo(3);
+        assertThat(aggregator.getTotalCapacity()).isEqualTo(6000);
+        assertThat(aggregator.getAverageCapacity()).isEqualTo(2000.0);
+        assertThat(aggregator.getMinCapacity()).isEqualTo(500);
+        assertThat(aggregator.getMaxCapacity()).isEqualTo(3500);
+    }
+
+    @Test
+    void shouldGrowPastExpectedRowsAndTrimNames() {
+        CapacityAggregator aggregator = new CapacityAggregator(2);
+
+        for (int i = 0; i < 10; i++) {
+            aggregator.accept("Battery-" + i, 1000);
+        }
+
+        assertThat(aggregator.names()).hasSize(10).startsWith("Battery-0").endsWith("Battery-9");
+        assertThat(aggregator.getTotalCapacity()).isEqualTo(10_000);
+    }
+
+    @Test
+    void shouldNotOverflowTotalCapacity() {
+        CapacityAggregator aggregator = new CapacityAggregator();
+
+        aggregator.accept("Big-1", Integer.MAX_VALUE);
+        aggregator.accept("Big-2", Integer.MAX_VALUE);
+
+        assertThat(aggregator.getTotalCapacity()).isEqualTo(2L * Integer.MAX_VALUE);
+    }
+
+    @Test
+    void shouldReturnZeroStatsWhenEmpty() {
+        CapacityAggregator aggregator = new CapacityAggregator(0);
+
+        assertThat(aggregator.names()).isEmpty();
+        assertThat(aggregator.getBatteryCount()).isZero();
+        assertThat(aggregator.getAverageCapacity()).isEqualTo(0.0);
+        assertThat(aggregator.getMinCapacity()).isZero();
+        assertThat(aggregator.getMaxCapacity()).isZero();
+    }
+}
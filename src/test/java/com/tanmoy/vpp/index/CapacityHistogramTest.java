@@ -0,0 +1,71 @@
+package com.tanmoy.vpp.index;
+
+import com.tanmoy.vpp.dto.response.CapacityBucketDto;
+import com.tanmoy.vpp.dto.response.CapacityDistributionDto;
+import org.assertj.core.data.Percentage;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CapacityHistogramTest {
+
+    private static CapacityHistogram histogramOf(int fromCapacity, int toCapacity) {
+        CapacityHistogram histogram = new CapacityHistogram();
+        for (int capacity = fromCapacity; capacity <= toCapacity; capacity++) {
+            histogram.record(capacity);
+        }
+        return histogram;
+    }
+
+    @Test
+    void shouldReportPercentilesWithinOnePercent() {
+        CapacityDistributionDto distribution = histogramOf(1, 10_000).toDto();
+
+        assertThat(distribution.getMinWattCapacity()).isEqualTo(1);
+        assertThat(distribution.getMaxWattCapacity()).isEqualTo(10_000);
+        assertThat(distribution.getP50WattCapacity()).isCloseTo(5_000L, Percentage.withPercentage(1));
+        assertThat(distribution.getP90WattCapacity()).isCloseTo(9_000L, Percentage.withPercentage(1));
+        assertThat(distribution.getP99WattCapacity()).isCloseTo(9_900L, Percentage.withPercentage(1));
+    }
+
+    @Test
+    void shouldSplitRangeIntoEqualWidthBucketsCoveringEveryBattery() {
+        CapacityDistributionDto distribution = histogramOf(1, 10_000).toDto(10);
+
+        assertThat(distribution.getBuckets()).hasSize(10);
+        assertThat(distribution.getBuckets().get(0).getFromWattCapacity()).isEqualTo(1);
+        assertThat(distribution.getBuckets().get(9).getToWattCapacity()).isEqualTo(10_000);
+        assertThat(distribution.getBuckets().stream().mapToLong(CapacityBucketDto::getBatteryCount).sum())
+                .isEqualTo(10_000);
+        assertThat(distribution.getBuckets())
+                .allSatisfy(bucket -> assertThat(bucket.getBatteryCount()).isCloseTo(1_000L, Percentage.withPercentage(5)));
+    }
+
+    @Test
+    void shouldUseFewerBucketsWhenSpanIsNarrow() {
+        CapacityDistributionDto distribution = histogramOf(100, 103).toDto(10);
+
+        assertThat(distribution.getBuckets()).extracting(CapacityBucketDto::getFromWattCapacity)
+                .containsExactly(100L, 101L, 102L, 103L);
+        assertThat(distribution.getBuckets()).extracting(CapacityBucketDto::getBatteryCount)
+                .containsOnly(1L);
+    }
+
+    @Test
+    void shouldMergeIntoSameDistributionAsSingleHistogram() {
+        CapacityHistogram merged = histogramOf(1, 4_000);
+        merged.add(histogramOf(4_001, 10_000));
+        CapacityHistogram single = histogramOf(1, 10_000);
+
+        assertThat(merged.getCount()).isEqualTo(10_000);
+        assertThat(merged.toDto()).usingRecursiveComparison().isEqualTo(single.toDto());
+    }
+
+    @Test
+    void shouldReturnZeroDistributionWhenEmpty() {
+        CapacityDistributionDto distribution = new CapacityHistogram().toDto();
+
+        assertThat(distribution.getP50WattCapacity()).isZero();
+        assertThat(distribution.getBuckets()).isEmpty();
+    }
+}
@@ -0,0 +1,82 @@
+package com.tanmoy.vpp.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CapacityIndexTest {
+
+    private static CapacityIndex indexOf(int[][] entries) {
+        long[] packed = new long[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            packed[i] = CapacityIndex.pack(entries[i][0], entries[i][1]);
+        }
+        return CapacityIndex.fromPacked(packed, packed.length);
+    }
+
+    @Test
+    void shouldSumCapacityWithinPostcodeRange() {
+        CapacityIndex index = indexOf(new int[][] {{6002, 3000}, {6000, 1000}, {6001, 2000}, {7000, 9000}});
+
+        CapacityRangeStats stats = index.stats(6000, 6002, null, null);
+
+        assertThat(stats.getBatteryCount()).isEqualTo(3);
+        assertThat(stats.getTotalCapacity()).isEqualTo(6000);
+        assertThat(stats.getAverageCapacity()).isEqualTo(2000.0);
+    }
+
+    @Test
+    void shouldIncludeDuplicatePostcodesAtRangeBoundaries() {
+        CapacityIndex index = indexOf(new int[][] {{6000, 1}, {6000, 2}, {6001, 4}, {6002, 8}, {6002, 16}});
+
+        assertThat(index.stats(6000, 6000, null, null).getTotalCapacity()).isEqualTo(3);
+        assertThat(index.stats(6002, 6002, null, null).getTotalCapacity()).isEqualTo(24);
+        assertThat(index.stats(5000, 9000, null, null).getBatteryCount()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldApplyCapacityFilter() {
+        CapacityIndex index = indexOf(new int[][] {{6000, 500}, {6001, 1500}, {6002, 2500}, {6003, 3500}});
+
+        CapacityRangeStats stats = index.stats(6000, 6003, 1000, 3000);
+
+        assertThat(stats.getBatteryCount()).isEqualTo(2);
+        assertThat(stats.getTotalCapacity()).isEqualTo(4000);
+    }
+
+    @Test
+    void shouldReturnZeroStatsForEmptyRange() {
+        CapacityIndex index = indexOf(new int[][] {{6000, 500}});
+
+        CapacityRangeStats stats = index.stats(7000, 8000, null, null);
+
+        assertThat(stats.getBatteryCount()).isZero();
+        assertThat(stats.getAverageCapacity()).isEqualTo(0.0);
+        assertThat(CapacityIndex.empty().stats(0, Integer.MAX_VALUE, null, null).getBatteryCount()).isZero();
+    }
+
+    @Test
+    void shouldMergeNewEntriesInPostcodeOrder() {
+        CapacityIndex index = indexOf(new int[][] {{6000, 1000}, {6004, 4000}});
+        long[] delta = {CapacityIndex.pack(6005, 5000), CapacityIndex.pack(6002, 2000)};
+
+        CapacityIndex merged = index.merge(delta, delta.length);
+
+        assertThat(merged.size()).isEqualTo(4);
+        assertThat(merged.stats(6001, 6004, null, null).getTotalCapacity()).isEqualTo(6000);
+        assertThat(merged.stats(6000, 6005, null, null).getTotalCapacity()).isEqualTo(12000);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldMergeTwoIndexes() {
+        CapacityIndex base = indexOf(new int[][] {{6000, 1000}, {6002, 3000}});
+        CapacityIndex delta = indexOf(new int[][] {{6001, 2000}, {7000, 9000}});
+
+        CapacityIndex merged = base.merge(delta);
+
+        assertThat(merged.size()).isEqualTo(4);
+        assertThat(merged.stats(6000, 6002, null, null).getTotalCapacity()).isEqualTo(6000);
+        assertThat(base.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,56 @@
+package com.tanmoy.vpp.ingest;
+
+import com.tanmoy.vpp.dto.request.BatteryRequestDto;
+import com.tanmoy.vpp.exception.InvalidBatteryRowException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatteryCsvParserTest {
+
+    @Test
+    void shouldParsePlainRow() {
+        BatteryRequestDto dto = BatteryCsvParser.parse("Alpha,6000,1000", 1);
+
+        assertThat(dto.getName()).isEqualTo("Alpha");
+        assertThat(dto.getPostcode()).isEqualTo("6000");
+        assertThat(dto.getCapacity()).isEqualTo(1000);
+    }
+
+    @Test
+    void shouldParseQuotedNameWithCommaAndEscapedQuote() {
+        BatteryRequestDto dto = BatteryCsvParser.parse("\"Alpha, \"\"North\"\"\",0820,1500", 1);
+
+        assertThat(dto.getName()).isEqualTo("Alpha, \"North\"");
+        assertThat(dto.getPostcode()).isEqualTo("0820");
+    }
+
+    @Test
+    void shouldLeaveMissingCapacityNullForValidation() {
+        BatteryRequestDto dto = BatteryCsvParser.parse("Alpha,6000,", 1);
+
+        assertThat(dto.getCapacity()).isNull();
+    }
+
+    @Test
+    void shouldRecogniseHeader() {
+        assertThat(BatteryCsvParser.isHeader("name, postcode, capacity")).isTrue();
+        assertThat(BatteryCsvParser.isHeader("Alpha,6000,1000")).isFalse();
+    }
+
+    @Test
+    void shouldRejectWrongColumnCount() {
+        InvalidBatteryRowException ex = assertThrows(InvalidBatteryRowException.class, () ->
+                BatteryCsvParser.parse("Alpha,6000", 7));
+
+        assertEquals(7, ex.getLineNumber());
+    }
+
+    @Test
+    void shouldRejectNonNumericCapacity() {
+        assertThrows(InvalidBatteryRowException.class, () ->
+                BatteryCsvParser.parse("Alpha,6000,oops", 2));
+    }
+}
@@ -0,0 +1,82 @@
+package com.tanmoy.vpp.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tanmoy.vpp.dto.request.BatteryRequestDto;
+import com.tanmoy.vpp.exception.InvalidBatteryRowException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatteryJsonStreamReaderTest {
+
+    private final BatteryJsonStreamReader reader = new BatteryJsonStreamReader(new ObjectMapper());
+
+    @Test
+    void shouldReadEachBatteryWithItsLineNumber() {
+        String json = """
+                {
+                  "batteries": [
+                    { "name": "Alpha", "postcode": "6000", "capacity": 1000 },
+                    { "name": "Beta", "postcode": "6001", "capacity": 2000 }
+                  ]
+                }
+                """;
+
+        List<BatteryRequestDto> batteries = new ArrayList<>();
+        List<Long> lines = new ArrayList<>();
+
+        long count = reader.forEach(stream(json), (dto, line) -> {
+            batteries.add(dto);
+            lines.add(line);
+        });
+
+        assertThat(count).isEqualTo(2);
+        assertThat(batteries).extracting("name").containsExactly("Alpha", "Beta");
+        assertThat(lines).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void shouldSkipUnknownFields() {
+        String json = "{\"source\": {\"gateway\": [1, 2]}, \"batteries\": [{\"name\": \"Alpha\", \"postcode\": \"6000\", \"capacity\": 1}]}";
+
+        long count = reader.forEach(stream(json), (dto, line) -> { });
+
+        assertThat(count).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectMissingBatteriesArray() {
+        assertThrows(IllegalArgumentException.class, () ->
+                reader.forEach(stream("{\"items\": []}"), (dto, line) -> { }));
+    }
+
+    @Test
+    void shouldRejectEmptyBatteriesArray() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+                reader.forEach(stream("{\"batteries\": []}"), (dto, line) -> { }));
+
+        assertEquals("batteries must not be empty", ex.getMessage());
+    }
+
+    @Test
+    void shouldReportLineOfMalformedElement() {
+        String json = "{\"batteries\": [\n{\"name\": \"Alpha\", \"postcode\": \"6000\", \"capacity\": 1},\n{\"name\": \"Beta\", \"postcode\": \"6001\", \"capacity\": \"oops\"}\n]}";
+
+        InvalidBatteryRowException ex = assertThrows(InvalidBatteryRowException.class, () ->
+                reader.forEach(stream(json), (dto, line) -> { }));
+
+        assertEquals(3, ex.getLineNumber());
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
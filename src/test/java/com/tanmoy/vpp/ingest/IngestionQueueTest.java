@@ -0,0 +1,107 @@
+package com.tanmoy.vpp.ingest;
+
+import com.tanmoy.vpp.exception.IngestionQueueFullException;
+import com.tanmoy.vpp.metrics.BatteryMetrics;
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.service.BatteryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class IngestionQueueTest {
+
+    private final BatteryService batteryService = mock(BatteryService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private IngestionQueue queue;
+
+    private void newQueue(int capacity) {
+        queue = new IngestionQueue(batteryService, new BatteryMetrics(registry), registry,
+                capacity, 1, 5000, Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        queue.stop();
+    }
+
+    @Test
+    void shouldCoalesceQueuedJobsIntoOneSave() {
+        newQueue(10);
+        IngestionJob first = queue.submit(List.of(battery("A"), battery("B")));
+        IngestionJob second = queue.submit(List.of(battery("C")));
+
+        queue.start();
+
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                first.getStatus() == IngestionJob.Status.COMPLETED && second.getStatus() == IngestionJob.Status.COMPLETED);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Battery>> saved = ArgumentCaptor.forClass(List.class);
+        verify(batteryService).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(Battery::getName).containsExactly("A", "B", "C");
+        assertThat(queue.find(first.getId())).contains(first);
+    }
+
+    @Test
+    void shouldFailOnlyTheBadJobWhenCoalescedSaveFails() {
+        newQueue(10);
+        IngestionJob good = queue.submit(List.of(battery("Good")));
+        IngestionJob bad = queue.submit(List.of(battery("Bad")));
+
+        doAnswer(invocation -> {
+            List<Battery> batteries = invocation.getArgument(0);
+            if (batteries.stream().anyMatch(b -> b.getName().equals("Bad"))) {
+                throw new IllegalStateException("constraint violated");
+            }
+            return null;
+        }).when(batteryService).saveAll(anyList());
+
+        queue.start();
+
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                good.getStatus() == IngestionJob.Status.COMPLETED && bad.getStatus() == IngestionJob.Status.FAILED);
+        assertThat(bad.getError()).isEqualTo("constraint violated");
+        verify(batteryService, atLeastOnce()).saveAll(anyList());
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() {
+        newQueue(1);
+        queue.submit(List.of(battery("A")));
+
+        assertThatThrownBy(() -> queue.submit(List.of(battery("B"))))
+                .isInstanceOf(IngestionQueueFullException.class);
+    }
+
+    @Test
+    void shouldReportFailedSingleJob() {
+        newQueue(10);
+        doThrow(new IllegalStateException("db down")).when(batteryService).saveAll(anyList());
+        IngestionJob job = queue.submit(List.of(battery("A")));
+
+        queue.start();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> job.getStatus() == IngestionJob.Status.FAILED);
+        assertThat(job.getError()).isEqualTo("db down");
+        assertThat(job.getCompletedAt()).isNotNull();
+    }
+
+    private static Battery battery(String name) {
+        return Battery.of(name, "6000", 1000);
+    }
+}
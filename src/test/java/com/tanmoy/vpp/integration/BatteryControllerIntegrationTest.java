@@ -251,4 +251,68 @@ public class BatteryControllerIntegrationTest extends BasePostgresTest {
                 .andExpect(jsonPath("$.batteryNames[0]").value("BatteryWithZero"));
     }
 
-} 
\ No newline at end of file
+    @Test
+    void shouldImportCsvWithCopyAndMakeRowsSearchable() throws Exception {
+
+        String csv = "name,postcode,capacity\n"
+                + "\"Alpha, North\",6000,1000\n"
+                + "Beta,0820,2000\n";
+
+        mockMvc.perform(post("/api/batteries/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message", is("Imported 2 batteries successfully.")));
+
+        List<Battery> saved = batteryRepository.findAll();
+        assertThat(saved).extracting("name").containsExactlyInAnyOrder("Alpha, North", "Beta");
+        assertThat(saved).extracting("postcodeNumeric").containsExactlyInAnyOrder(6000, 820);
+    }
+
+    @Test
+    void shouldImportNdjsonWithCopy() throws Exception {
+
+        String ndjson = "{\"name\":\"Alpha\",\"postcode\":\"6000\",\"capacity\":1000}\n"
+                + "{\"name\":\"Beta\",\"postcode\":\"6001\",\"capacity\":2000}\n";
+
+        mockMvc.perform(post("/api/batteries/import")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message", is("Imported 2 batteries successfully.")));
+
+        assertThat(batteryRepository.findAll()).hasSize(2);
+    }
+
+    @Test
+    void shouldRejectImportWithInvalidRow() throws Exception {
+
+        String csv = "Alpha,6000,1000\nBeta,60AB,2000\n";
+
+        mockMvc.perform(post("/api/batteries/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", startsWith("Invalid battery at line 2")));
+    }
+
+    @Test
+    void shouldStreamJsonImportInChunks() throws Exception {
+
+        List<BatteryRequestDto> batteries = IntStream.range(0, 2500)
+                .mapToObj(i -> createBatteryDto("Streamed-" + i, "6000", 1000))
+                .collect(Collectors.toList());
+
+        BatteryListRequest request = new BatteryListRequest();
+        request.setBatteries(batteries);
+
+        mockMvc.perform(post("/api/batteries/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message", is("Imported 2500 batteries successfully.")));
+
+        assertThat(batteryRepository.count()).isEqualTo(2500);
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.tanmoy.vpp.integration;
+
+import com.tanmoy.vpp.BasePostgresTest;
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.service.BatteryImportService;
+import com.tanmoy.vpp.service.impl.BatteryServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent multi-row inserts over the same postcodes, each submitted in a
+ * different shuffled order. Every writer inserts in postcode order, so the
+ * rollup trigger's row locks are taken in one global order and no writer is
+ * aborted as a deadlock victim.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+class ConcurrentBatteryInsertIntegrationTest extends BasePostgresTest {
+
+    private static final int WRITERS = 16;
+    private static final int ROUNDS = 5;
+    private static final int POSTCODES = 40;
+
+    @Autowired
+    private BatteryServiceImpl batteryService;
+
+    @Autowired
+    private BatteryImportService batteryImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE batteries, postcode_capacity_rollup");
+    }
+
+    @Test
+    void shouldInsertConcurrentlyIntoSharedPostcodesWithoutDeadlock() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            CountDownLatch ready = new CountDownLatch(1);
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                Random random = new Random(w);
+                boolean viaImport = w % 4 == 0;
+                writers.add(pool.submit((Callable<Void>) () -> {
+                    ready.await();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        List<Battery> batteries = shuffledBatteries(random);
+                        if (viaImport) {
+                            batteryImportService.importCsv(toCsv(batteries));
+                        } else {
+                            batteryService.saveAll(batteries);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            ready.countDown();
+
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int expected = WRITERS * ROUNDS * POSTCODES;
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM batteries", Integer.class))
+                .isEqualTo(expected);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT coalesce(sum(battery_count), 0) FROM postcode_capacity_rollup", Integer.class))
+                .isEqualTo(expected);
+    }
+
+    private static List<Battery> shuffledBatteries(Random random) {
+        List<Battery> batteries = new ArrayList<>(POSTCODES);
+        for (int i = 0; i < POSTCODES; i++) {
+            batteries.add(Battery.of("Battery-" + i, String.valueOf(6000 + i), 1000 + i));
+        }
+        Collections.shuffle(batteries, random);
+        return batteries;
+    }
+
+    private static ByteArrayInputStream toCsv(List<Battery> batteries) {
+        StringBuilder csv = new StringBuilder();
+        for (Battery battery : batteries) {
+            csv.append(battery.getName()).append(',').append(battery.getPostcode()).append(',')
+                    .append(battery.getCapacity()).append('\n');
+        }
+        return new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,81 @@
+package com.tanmoy.vpp.integration;
+
+import com.tanmoy.vpp.BasePostgresTest;
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.service.impl.GroupCommitBatteryWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the group commit contract against PostgreSQL: a caller is released
+ * only once its batteries are committed, i.e. visible to another connection.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "vpp.ingest.group-commit.enabled=true",
+        "vpp.ingest.group-commit.max-delay=50ms",
+        "vpp.ingest.group-commit.writers=2"
+})
+class GroupCommitBatteryWriterIntegrationTest extends BasePostgresTest {
+
+    private static final int CALLERS = 50;
+
+    @Autowired
+    private GroupCommitBatteryWriter writer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE batteries, postcode_capacity_rollup");
+    }
+
+    @Test
+    void shouldReleaseEachCallerOnlyAfterItsBatteriesAreCommitted() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            CountDownLatch ready = new CountDownLatch(1);
+            List<Future<Integer>> visibleOnReturn = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                String name = "Group-" + i;
+                String postcode = String.valueOf(6000 + i % 7);
+                visibleOnReturn.add(callers.submit(() -> {
+                    ready.await();
+                    writer.write(List.of(Battery.of(name, postcode, 1000), Battery.of(name, postcode, 2000)));
+                    // Autocommit read on its own pooled connection: sees only committed rows
+                    return jdbcTemplate.queryForObject(
+                            "SELECT count(*) FROM batteries WHERE name = ?", Integer.class, name);
+                }));
+            }
+            ready.countDown();
+
+            for (Future<Integer> visible : visibleOnReturn) {
+                assertThat(visible.get(30, TimeUnit.SECONDS)).isEqualTo(2);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM batteries", Integer.class))
+                .isEqualTo(2 * CALLERS);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT coalesce(sum(battery_count), 0) FROM postcode_capacity_rollup", Integer.class))
+                .isEqualTo(2 * CALLERS);
+    }
+}
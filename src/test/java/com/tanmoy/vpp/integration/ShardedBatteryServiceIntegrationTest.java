@@ -0,0 +1,204 @@
+package com.tanmoy.vpp.integration;
+
+import com.tanmoy.vpp.BasePostgresTest;
+import com.tanmoy.vpp.dto.response.BatterySearchPageResponseDto;
+import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import com.tanmoy.vpp.dto.response.BatterySearchSummaryDto;
+import com.tanmoy.vpp.dto.response.CapacityBucketDto;
+import com.tanmoy.vpp.dto.response.CapacityDistributionDto;
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.service.BatteryImportService;
+import com.tanmoy.vpp.service.BatteryService;
+import com.tanmoy.vpp.service.impl.ShardedBatteryImportService;
+import com.tanmoy.vpp.service.impl.ShardedBatteryService;
+import org.assertj.core.data.Percentage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two shards on their own PostgreSQL containers, split at postcode 5000;
+ * {@code spring.datasource} stays on the base test container.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "vpp.search.stream.fetch-size=2"
+})
+@ActiveProfiles("sharded")
+class ShardedBatteryServiceIntegrationTest extends BasePostgresTest {
+
+    @Container
+    static final PostgreSQLContainer<?> lowShard = new PostgreSQLContainer<>("postgres:15");
+
+    @Container
+    static final PostgreSQLContainer<?> highShard = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void registerShards(DynamicPropertyRegistry registry) {
+        register(registry, 0, "low", lowShard);
+        registry.add("vpp.sharding.shards[0].from-postcode", () -> 0);
+        registry.add("vpp.sharding.shards[0].to-postcode", () -> 5000);
+        register(registry, 1, "high", highShard);
+        registry.add("vpp.sharding.shards[1].from-postcode", () -> 5000);
+    }
+
+    private static void register(DynamicPropertyRegistry registry, int index, String name,
+                                 PostgreSQLContainer<?> container) {
+        String prefix = "vpp.sharding.shards[" + index + "].";
+        registry.add(prefix + "name", () -> name);
+        registry.add(prefix + "url", container::getJdbcUrl);
+        registry.add(prefix + "username", container::getUsername);
+        registry.add(prefix + "password", container::getPassword);
+    }
+
+    @Autowired
+    private BatteryService batteryService;
+
+    @Autowired
+    private BatteryImportService batteryImportService;
+
+    private final JdbcTemplate low = jdbc(lowShard);
+    private final JdbcTemplate high = jdbc(highShard);
+
+    @BeforeEach
+    void setUp() {
+        low.execute("TRUNCATE batteries, postcode_capacity_rollup");
+        high.execute("TRUNCATE batteries, postcode_capacity_rollup");
+
+        batteryService.saveAll(List.of(
+                Battery.of("Delta", "6000", 4000),
+                Battery.of("Alpha", "1000", 1000),
+                Battery.of("Echo", "4999", 5000),
+                Battery.of("Bravo", "5000", 2000),
+                Battery.of("Charlie", "2000", 3000)
+        ));
+    }
+
+    @Test
+    void shouldUseShardedService() {
+        assertThat(batteryService).isInstanceOf(ShardedBatteryService.class);
+    }
+
+    @Test
+    void shouldStoreEachBatteryOnOwningShard() {
+        assertThat(low.queryForList("SELECT name FROM batteries ORDER BY name", String.class))
+                .containsExactly("Alpha", "Charlie", "Echo");
+        assertThat(high.queryForList("SELECT name FROM batteries ORDER BY name", String.class))
+                .containsExactly("Bravo", "Delta");
+    }
+
+    @Test
+    void shouldMergeNamesAndCombineStatsAcrossShards() {
+        BatterySearchResponseDto response = batteryService.getBatteriesByPostcodeRange(1000, 6000, null, null);
+
+        assertThat(response.getBatteryNames()).containsExactly("Alpha", "Bravo", "Charlie", "Delta", "Echo");
+        assertThat(response.getTotalWattCapacity()).isEqualTo(15000);
+        assertThat(response.getAverageWattCapacity()).isEqualTo(3000.0);
+    }
+
+    @Test
+    void shouldApplyCapacityFilterOnEveryShard() {
+        BatterySearchResponseDto response = batteryService.getBatteriesByPostcodeRange(0, 9999, 2000, 4000);
+
+        assertThat(response.getBatteryNames()).containsExactly("Bravo", "Charlie", "Delta");
+        assertThat(response.getTotalWattCapacity()).isEqualTo(9000);
+    }
+
+    @Test
+    void shouldMergeCapacityDistributionAcrossShards() {
+        CapacityDistributionDto distribution = batteryService
+                .getBatteriesWithDistributionByPostcodeRange(0, 9999, null, null)
+                .getCapacityDistribution();
+
+        assertThat(distribution.getMinWattCapacity()).isEqualTo(1000);
+        assertThat(distribution.getMaxWattCapacity()).isEqualTo(5000);
+        assertThat(distribution.getP50WattCapacity()).isCloseTo(3000L, Percentage.withPercentage(1));
+        assertThat(distribution.getBuckets().stream().mapToLong(CapacityBucketDto::getBatteryCount).sum())
+                .isEqualTo(5);
+    }
+
+    @Test
+    void shouldSearchSingleShardRange() {
+        BatterySearchResponseDto response = batteryService.getBatteriesByPostcodeRange(5000, 5999, null, null);
+
+        assertThat(response.getBatteryNames()).containsExactly("Bravo");
+        assertThat(response.getTotalWattCapacity()).isEqualTo(2000);
+    }
+
+    @Test
+    void shouldPageThroughBothShardsInNameOrder() {
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        do {
+            BatterySearchPageResponseDto page = batteryService.getBatteryPageByPostcodeRange(
+                    0, 9999, null, null, 2, cursor);
+            assertThat(page.getTotalBatteries()).isEqualTo(5);
+            names.addAll(page.getBatteryNames());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(names).containsExactly("Alpha", "Bravo", "Charlie", "Delta", "Echo");
+    }
+
+    @Test
+    void shouldStreamMergedNamesAndSummary() {
+        List<String> names = new ArrayList<>();
+
+        BatterySearchSummaryDto summary = batteryService.streamBatteriesByPostcodeRange(
+                0, 9999, null, null, names::add);
+
+        assertThat(names).containsExactly("Alpha", "Bravo", "Charlie", "Delta", "Echo");
+        assertThat(summary.getTotalBatteries()).isEqualTo(5);
+        assertThat(summary.getTotalWattCapacity()).isEqualTo(15000);
+    }
+
+    @Test
+    void shouldSumRollupStatsAcrossShards() {
+        BatterySearchSummaryDto stats = batteryService.getBatteryStatsByPostcodeRange(0, 9999, null, null);
+
+        assertThat(stats.getTotalBatteries()).isEqualTo(5);
+        assertThat(stats.getTotalWattCapacity()).isEqualTo(15000);
+        assertThat(stats.getAverageWattCapacity()).isEqualTo(3000.0);
+    }
+
+    @Test
+    void shouldImportEachRowIntoOwningShard() {
+        assertThat(batteryImportService).isInstanceOf(ShardedBatteryImportService.class);
+
+        long rows = batteryImportService.importCsv(new ByteArrayInputStream("""
+                name,postcode,capacity
+                Foxtrot,3000,6000
+                Golf,7000,7000
+                """.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(rows).isEqualTo(2);
+        assertThat(low.queryForList("SELECT name FROM batteries WHERE name = 'Foxtrot'", String.class)).hasSize(1);
+        assertThat(high.queryForList("SELECT name FROM batteries WHERE name = 'Golf'", String.class)).hasSize(1);
+        BatterySearchResponseDto response = batteryService.getBatteriesByPostcodeRange(0, 9999, 6000, null);
+        assertThat(response.getBatteryNames()).containsExactly("Foxtrot", "Golf");
+        assertThat(batteryService.getBatteryStatsByPostcodeRange(0, 9999, null, null).getTotalBatteries())
+                .isEqualTo(7);
+    }
+
+    private static JdbcTemplate jdbc(PostgreSQLContainer<?> container) {
+        return new JdbcTemplate(new DriverManagerDataSource(
+                container.getJdbcUrl(), container.getUsername(), container.getPassword()));
+    }
+}
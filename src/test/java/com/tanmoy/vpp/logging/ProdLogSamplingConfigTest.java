@@ -0,0 +1,67 @@
+package com.tanmoy.vpp.logging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loads {@code log4j2-prod.xml} into its own context and checks which events
+ * the sampling filter on the application logger lets through.
+ */
+class ProdLogSamplingConfigTest {
+
+    private LoggerContext context;
+    private Filter samplingFilter;
+
+    @BeforeEach
+    void setUp() {
+        context = Configurator.initialize("prod-sampling-test", "classpath:log4j2-prod.xml");
+        LoggerConfig appLogger = context.getConfiguration().getLoggerConfig("com.tanmoy.vpp");
+        samplingFilter = appLogger.getFilter();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Configurator.shutdown(context);
+    }
+
+    @Test
+    void shouldKeepInfoFromThreadsOutsideRequests() {
+        assertThat(decide(Level.INFO, null)).isNotEqualTo(Filter.Result.DENY);
+    }
+
+    @Test
+    void shouldKeepInfoFromSampledRequests() {
+        assertThat(decide(Level.INFO, "true")).isNotEqualTo(Filter.Result.DENY);
+    }
+
+    @Test
+    void shouldDropOnlyInfoFromUnsampledRequests() {
+        assertThat(decide(Level.INFO, "false")).isEqualTo(Filter.Result.DENY);
+        assertThat(decide(Level.WARN, "false")).isNotEqualTo(Filter.Result.DENY);
+    }
+
+    private Filter.Result decide(Level level, String sampled) {
+        StringMap contextData = ContextDataFactory.createContextData();
+        if (sampled != null) {
+            contextData.putValue(RequestLogSamplingFilter.SAMPLED_KEY, sampled);
+        }
+        return samplingFilter.filter(Log4jLogEvent.newBuilder()
+                .setLoggerName("com.tanmoy.vpp.service.impl.BatteryServiceImpl")
+                .setLevel(level)
+                .setMessage(new SimpleMessage("Search batteries: START"))
+                .setContextData(contextData)
+                .build());
+    }
+}
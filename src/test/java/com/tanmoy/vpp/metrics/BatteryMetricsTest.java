@@ -0,0 +1,41 @@
+package com.tanmoy.vpp.metrics;
+
+import com.tanmoy.vpp.metrics.BatteryMetrics.IngestFormat;
+import com.tanmoy.vpp.metrics.BatteryMetrics.SearchEndpoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatteryMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BatteryMetrics metrics = new BatteryMetrics(registry);
+
+    @Test
+    void shouldTagSearchesByEndpointAndCapacityFilter() {
+        metrics.recordSearch(SearchEndpoint.SEARCH, false, System.nanoTime(), 3);
+        metrics.recordSearch(SearchEndpoint.SEARCH, true, System.nanoTime(), 5);
+        metrics.recordSearch(SearchEndpoint.SEARCH, true, System.nanoTime(), 7);
+
+        assertThat(registry.get("vpp.search.latency")
+                .tags("endpoint", "search", "capacity_filter", "true").timer().count()).isEqualTo(2);
+        assertThat(registry.get("vpp.search.matched")
+                .tags("endpoint", "search", "capacity_filter", "true").summary().totalAmount()).isEqualTo(12);
+        assertThat(registry.get("vpp.search.matched")
+                .tags("endpoint", "search", "capacity_filter", "false").summary().totalAmount()).isEqualTo(3);
+        assertThat(registry.get("vpp.search.latency")
+                .tags("endpoint", "search_page").timers()).allMatch(timer -> timer.count() == 0);
+    }
+
+    @Test
+    void shouldCountIngestedRowsPerFormat() {
+        metrics.recordInsert(4, System.nanoTime());
+        metrics.recordIngest(IngestFormat.CSV, 1000, System.nanoTime());
+
+        assertThat(registry.get("vpp.insert.batch.size").summary().totalAmount()).isEqualTo(4);
+        assertThat(registry.get("vpp.ingest.rows").tag("format", "api").counter().count()).isEqualTo(4);
+        assertThat(registry.get("vpp.ingest.rows").tag("format", "csv").counter().count()).isEqualTo(1000);
+        assertThat(registry.get("vpp.ingest.latency").tag("format", "csv").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,83 @@
+package com.tanmoy.vpp.repository;
+
+import com.tanmoy.vpp.BasePostgresTest;
+import com.tanmoy.vpp.model.Battery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the real Flyway migrations and checks the partitioned layout of {@code batteries}.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+class BatteryPartitioningTest extends BasePostgresTest {
+
+    @Autowired
+    private BatteryRepository batteryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        batteryRepository.saveAll(List.of(
+                Battery.of("Alpha", "6000", 1000),
+                Battery.of("Beta", "6999", 2000),
+                Battery.of("Gamma", "2000", 3000),
+                Battery.of("Delta", "123456", 4000)
+        ));
+        batteryRepository.flush();
+    }
+
+    @Test
+    void shouldRouteRowsToPostcodeRangePartitions() {
+        assertThat(partitionOf("Alpha")).isEqualTo("batteries_p6000_7000");
+        assertThat(partitionOf("Beta")).isEqualTo("batteries_p6000_7000");
+        assertThat(partitionOf("Gamma")).isEqualTo("batteries_p2000_3000");
+        assertThat(partitionOf("Delta")).isEqualTo("batteries_default");
+    }
+
+    @Test
+    void shouldPruneRangeSearchToOverlappingPartitions() {
+        String plan = String.join("\n", jdbcTemplate.queryForList("""
+                EXPLAIN SELECT * FROM batteries
+                WHERE postcode_numeric BETWEEN 6000 AND 6500 AND capacity >= 500
+                """, String.class));
+
+        assertThat(plan).contains("batteries_p6000_7000");
+        assertThat(plan).doesNotContain("batteries_p2000_3000", "batteries_default");
+
+        assertThat(batteryRepository.findInRangeWithOptionalCapacity(6000, 6500, null, null))
+                .extracting(Battery::getName)
+                .containsExactly("Alpha");
+    }
+
+    @Test
+    void shouldMoveRowsOutOfDefaultWhenCreatingPartition() {
+        jdbcTemplate.queryForObject("SELECT create_batteries_partition(100000, 200000)", String.class);
+
+        assertThat(partitionOf("Delta")).isEqualTo("batteries_p100000_200000");
+        assertThat(batteryRepository.findInRangeWithOptionalCapacity(100000, 200000, null, null))
+                .extracting(Battery::getName)
+                .containsExactly("Delta");
+    }
+
+    private String partitionOf(String name) {
+        return jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM batteries WHERE name = ?", String.class, name);
+    }
+}
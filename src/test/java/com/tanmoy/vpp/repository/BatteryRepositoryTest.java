@@ -2,12 +2,15 @@ package com.tanmoy.vpp.repository;
 
 import com.tanmoy.vpp.BasePostgresTest;
 import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.repository.projection.BatteryCapacityStats;
+import com.tanmoy.vpp.repository.projection.BatteryNameKey;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -60,6 +63,21 @@ public class BatteryRepositoryTest extends BasePostgresTest {
                 .containsExactlyInAnyOrder("Battery1", "Battery2", "Battery3");
     }
 
+    @Test
+    void shouldAssignTimeOrderedIdBeforePersisting() {
+
+        Battery battery = Battery.of("Battery", "1234", 3000);
+
+        assertThat(battery.getId()).isNotNull();
+        assertThat(battery.getId().version()).isEqualTo(7);
+        assertThat(battery.isNew()).isTrue();
+
+        Battery savedBattery = batteryRepository.save(battery);
+
+        assertThat(savedBattery).isSameAs(battery);
+        assertThat(savedBattery.isNew()).isFalse();
+    }
+
     @Test
     void shouldFindBatteryById() {
 
@@ -102,6 +120,82 @@ public class BatteryRepositoryTest extends BasePostgresTest {
         assertThat(results).isEmpty();
     }
 
+    @Test
+    void shouldAggregateCapacityWithinPostcodeRange() {
+        BatteryCapacityStats stats = batteryRepository.aggregateCapacityInRange(
+                6000, 6002, null, null);
+        assertThat(stats.getBatteryCount()).isEqualTo(3);
+        assertThat(stats.getTotalCapacity()).isEqualTo(6000);
+        assertThat(stats.getAverageCapacity()).isEqualTo(2000.0);
+    }
+
+    @Test
+    void shouldAggregateCapacityWithCapacityFilter() {
+        BatteryCapacityStats stats = batteryRepository.aggregateCapacityInRange(
+                6000, 6002, 1500, 2500);
+        assertThat(stats.getBatteryCount()).isEqualTo(1);
+        assertThat(stats.getTotalCapacity()).isEqualTo(2000);
+    }
+
+    @Test
+    void shouldReturnZeroAggregateWhenNoMatch() {
+        BatteryCapacityStats stats = batteryRepository.aggregateCapacityInRange(
+                7000, 8000, null, null);
+        assertThat(stats.getBatteryCount()).isZero();
+        assertThat(stats.getTotalCapacity()).isZero();
+        assertThat(stats.getAverageCapacity()).isEqualTo(0.0);
+    }
+
+    @Test
+    void shouldReturnNamesOrderedByName() {
+        batteryRepository.save(Battery.of("alpha", "6001", 500));
+        List<String> names = streamNames(6000, 6002, null, null);
+        assertThat(names).containsExactly("Alpha", "Beta", "Gamma", "alpha");
+    }
+
+    @Test
+    void shouldFilterNamesByMinCapacity() {
+        List<String> names = streamNames(6000, 6002, 2000, null);
+        assertThat(names).containsExactly("Beta", "Gamma");
+    }
+
+    @Test
+    void shouldPageThroughNamesWithKeysetIncludingDuplicateNames() {
+        batteryRepository.save(Battery.of("Beta", "6002", 2500));
+
+        List<BatteryNameKey> first = batteryRepository.findFirstNamePage(6000, 6002, null, null, 2);
+        assertThat(first).extracting(BatteryNameKey::getName).containsExactly("Alpha", "Beta");
+
+        BatteryNameKey last = first.get(1);
+        List<BatteryNameKey> second = batteryRepository.findNamePageAfter(
+                6000, 6002, null, null, last.getName(), last.getId(), 2);
+        assertThat(second).extracting(BatteryNameKey::getName).containsExactly("Beta", "Gamma");
+        assertThat(second.get(0).getId()).isNotEqualTo(last.getId());
+    }
+
+    @Test
+    void shouldStreamNamesAndCapacitiesOrderedByName() {
+        batteryRepository.flush();
+
+        List<String> names = new ArrayList<>();
+        long[] total = new long[1];
+        batteryRepository.streamNamesInRangeOrderByName(6000, 6002, null, 2500, (name, capacity) -> {
+            names.add(name);
+            total[0] += capacity;
+        });
+
+        assertThat(names).containsExactly("Alpha", "Beta");
+        assertThat(total[0]).isEqualTo(3000);
+    }
+
+    private List<String> streamNames(int startPostcode, int endPostcode, Integer minCapacity, Integer maxCapacity) {
+        batteryRepository.flush();
+        List<String> names = new ArrayList<>();
+        batteryRepository.streamNamesInRangeOrderByName(startPostcode, endPostcode, minCapacity, maxCapacity,
+                (name, capacity) -> names.add(name));
+        return names;
+    }
+
     @Test
     void shouldCorrectlyConvertPostcodeToNumericInFactoryMethod() {
         Battery battery = Battery.of("TestBattery", "0820", 1500);
@@ -0,0 +1,100 @@
+package com.tanmoy.vpp.repository;
+
+import com.tanmoy.vpp.BasePostgresTest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAIN ANALYZE regression test: the search queries must stay index-only
+ * scans without heap fetches on a vacuumed table. Runs outside a test
+ * transaction because VACUUM cannot run inside one.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BatterySearchPlanTest extends BasePostgresTest {
+
+    private static final Pattern HEAP_FETCHES = Pattern.compile("Heap Fetches: (\\d+)");
+
+    private static final String AGGREGATE_SQL = """
+        SELECT COUNT(*), COALESCE(SUM(b.capacity), 0), COALESCE(AVG(b.capacity), 0.0) FROM batteries b
+        WHERE b.postcode_numeric BETWEEN :startPostcode AND :endPostcode
+        AND (CAST(:minCapacity AS INTEGER) IS NULL OR b.capacity >= CAST(:minCapacity AS INTEGER))
+        AND (CAST(:maxCapacity AS INTEGER) IS NULL OR b.capacity <= CAST(:maxCapacity AS INTEGER))
+    """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("""
+            INSERT INTO batteries (id, name, postcode, capacity, postcode_numeric)
+            SELECT gen_random_uuid(), 'Battery-' || g, (1000 + g % 9000)::text, 100 + g % 50000, 1000 + g % 9000
+            FROM generate_series(1, 100000) AS g
+            """);
+        jdbcTemplate.execute("VACUUM ANALYZE batteries");
+    }
+
+    static Stream<Arguments> searches() {
+        return Stream.of(
+                Arguments.of("names with capacity", BatteryRepository.NAMES_WITH_CAPACITY_IN_RANGE_SQL, null, null),
+                Arguments.of("names with capacity and capacity bounds",
+                        BatteryRepository.NAMES_WITH_CAPACITY_IN_RANGE_SQL, 1000, 40000),
+                Arguments.of("aggregate", AGGREGATE_SQL, null, null),
+                Arguments.of("aggregate with capacity bounds", AGGREGATE_SQL, 1000, 40000)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("searches")
+    void shouldUseIndexOnlyScanWithoutHeapFetches(String description, String sql,
+                                                  Integer minCapacity, Integer maxCapacity) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("startPostcode", 6000)
+                .addValue("endPostcode", 6010)
+                .addValue("minCapacity", minCapacity, Types.INTEGER)
+                .addValue("maxCapacity", maxCapacity, Types.INTEGER);
+
+        List<String> planLines = namedParameterJdbcTemplate.queryForList(
+                "EXPLAIN (ANALYZE, COSTS OFF) " + sql, params, String.class);
+        String plan = String.join("\n", planLines);
+
+        assertThat(plan).as(plan).contains("Index Only Scan using");
+        assertThat(plan).as(plan).doesNotContain("Seq Scan", "Bitmap Heap Scan");
+
+        Matcher heapFetches = HEAP_FETCHES.matcher(plan);
+        while (heapFetches.find()) {
+            assertThat(Integer.parseInt(heapFetches.group(1))).as(plan).isZero();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.tanmoy.vpp.repository;
+
+import com.tanmoy.vpp.BasePostgresTest;
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.repository.projection.BatteryNameKey;
+import com.tanmoy.vpp.util.NameOrder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contract between the database's name order and the Java comparators used
+ * to merge or check it: every name-ordered query must return names in
+ * {@link NameOrder#CODE_POINT} order, which equals {@link String#compareTo}
+ * within the Basic Multilingual Plane. Dashboards rely on that order, so a
+ * change of collation, encoding or query must fail here.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+class NameOrderContractTest extends BasePostgresTest {
+
+    private static final List<String> BMP_NAMES = List.of(
+            "Alpha", "alpha", "ALPHA", "Alpha 2", "Alpha 10", "Alpha-2", "Alpha_2", "Alpha.2", "Alpha~2",
+            "10", "9", " Alpha", "[Alpha]", "\u00c5lesund", "\u00c9mile", "Eve", "Zoe", "zoe", "na\u00efve",
+            "nai", "\u00df", "ss", "\u00e6on", "\u65e5\u672c", "\u4e2d\u56fd", "\uff21lpha", "\u0410\u043b\u044c\u0444\u0430");
+
+    private static final List<String> SUPPLEMENTARY_NAMES = List.of(
+            "Battery \ud83d\udd0b", "Battery \uff22", "Battery \ud83d\ude00", "Battery \ue000");
+
+    @Autowired
+    private BatteryRepository batteryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldRunOnUtf8Database() {
+        assertThat(jdbcTemplate.queryForObject("SHOW server_encoding", String.class)).isEqualTo("UTF8");
+    }
+
+    @Test
+    void shouldOrderNamesLikeStringCompareTo() {
+        save(BMP_NAMES);
+
+        assertThat(streamNames())
+                .containsExactlyElementsOf(sorted(BMP_NAMES, Comparator.naturalOrder()));
+    }
+
+    @Test
+    void shouldOrderEveryNameQueryByCodePoint() {
+        List<String> names = new ArrayList<>(BMP_NAMES);
+        names.addAll(SUPPLEMENTARY_NAMES);
+        save(names);
+        List<String> expected = sorted(names, NameOrder.CODE_POINT);
+
+        assertThat(streamNames()).containsExactlyElementsOf(expected);
+
+        assertThat(pageThrough(5)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void shouldPinWhereStringCompareToDiffersFromDatabase() {
+        save(SUPPLEMENTARY_NAMES);
+
+        List<String> database = streamNames();
+
+        assertThat(database).containsExactly(
+                "Battery \ue000", "Battery \uff22", "Battery \ud83d\udd0b", "Battery \ud83d\ude00");
+        assertThat(sorted(SUPPLEMENTARY_NAMES, Comparator.naturalOrder())).containsExactly(
+                "Battery \ud83d\udd0b", "Battery \ud83d\ude00", "Battery \ue000", "Battery \uff22");
+    }
+
+    private List<String> streamNames() {
+        List<String> names = new ArrayList<>();
+        batteryRepository.streamNamesInRangeOrderByName(6000, 6999, null, null,
+                (name, capacity) -> names.add(name));
+        return names;
+    }
+
+    private List<String> pageThrough(int pageSize) {
+        List<String> names = new ArrayList<>();
+        List<BatteryNameKey> page = batteryRepository.findFirstNamePage(6000, 6999, null, null, pageSize);
+        while (!page.isEmpty()) {
+            page.forEach(row -> names.add(row.getName()));
+            BatteryNameKey last = page.get(page.size() - 1);
+            page = batteryRepository.findNamePageAfter(6000, 6999, null, null,
+                    last.getName(), last.getId(), pageSize);
+        }
+        return names;
+    }
+
+    private void save(List<String> names) {
+        List<Battery> batteries = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            batteries.add(Battery.of(names.get(i), String.valueOf(6000 + i), 1000));
+        }
+        batteryRepository.saveAll(batteries);
+        batteryRepository.flush();
+    }
+
+    private static List<String> sorted(List<String> names, Comparator<String> order) {
+        List<String> sorted = new ArrayList<>(names);
+        sorted.sort(order);
+        return sorted;
+    }
+}
@@ -0,0 +1,125 @@
+package com.tanmoy.vpp.repository;
+
+import com.tanmoy.vpp.BasePostgresTest;
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.repository.projection.BatteryCapacityStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the real Flyway migrations and checks that the triggers on {@code batteries}
+ * keep {@code postcode_capacity_rollup} equal to a full aggregate.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+class PostcodeCapacityRollupTest extends BasePostgresTest {
+
+    @Autowired
+    private BatteryRepository batteryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        batteryRepository.saveAll(List.of(
+                Battery.of("Alpha", "6000", 1000),
+                Battery.of("Beta", "6000", 3000),
+                Battery.of("Gamma", "6500", 2000),
+                Battery.of("Delta", "7000", 4000)
+        ));
+        batteryRepository.flush();
+    }
+
+    @Test
+    void shouldRollUpInsertedBatteriesPerPostcode() {
+        Map<String, Object> row = rollupRow(6000);
+
+        assertThat(((Number) row.get("battery_count")).longValue()).isEqualTo(2);
+        assertThat(((Number) row.get("capacity_sum")).longValue()).isEqualTo(4000);
+        assertThat(((Number) row.get("capacity_min")).intValue()).isEqualTo(1000);
+        assertThat(((Number) row.get("capacity_max")).intValue()).isEqualTo(3000);
+    }
+
+    @Test
+    void shouldMatchDetailedAggregateForRange() {
+        BatteryCapacityStats rollup = batteryRepository.aggregateRollupInRange(6000, 6999);
+        BatteryCapacityStats detailed = batteryRepository.aggregateCapacityInRange(6000, 6999, null, null);
+
+        assertThat(rollup.getBatteryCount()).isEqualTo(detailed.getBatteryCount()).isEqualTo(3);
+        assertThat(rollup.getTotalCapacity()).isEqualTo(detailed.getTotalCapacity()).isEqualTo(6000);
+        assertThat(rollup.getAverageCapacity()).isEqualTo(detailed.getAverageCapacity()).isEqualTo(2000.0);
+    }
+
+    @Test
+    void shouldRecomputeRollupAfterUpdateAndDelete() {
+        jdbcTemplate.update("UPDATE batteries SET capacity = 500 WHERE name = 'Beta'");
+        jdbcTemplate.update("DELETE FROM batteries WHERE name = 'Alpha'");
+
+        Map<String, Object> row = rollupRow(6000);
+        assertThat(((Number) row.get("battery_count")).longValue()).isEqualTo(1);
+        assertThat(((Number) row.get("capacity_sum")).longValue()).isEqualTo(500);
+        assertThat(((Number) row.get("capacity_min")).intValue()).isEqualTo(500);
+
+        jdbcTemplate.update("DELETE FROM batteries WHERE name = 'Gamma'");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM postcode_capacity_rollup WHERE postcode_numeric = 6500", Long.class))
+                .isZero();
+    }
+
+    @Test
+    void shouldReturnZeroStatsForEmptyRange() {
+        BatteryCapacityStats stats = batteryRepository.aggregateRollupInRange(1000, 1999);
+
+        assertThat(stats.getBatteryCount()).isZero();
+        assertThat(stats.getTotalCapacity()).isZero();
+        assertThat(stats.getAverageCapacity()).isZero();
+    }
+
+    @Test
+    void shouldCutRangeIntoSlicesWithBalancedRowCounts() {
+        // 304 rows packed into 4-digit postcodes plus 100 spread over 7-digit ones: equal-width slices of
+        // 0-9,999,999 would put all but 100 rows in the first one
+        List<Battery> batteries = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            batteries.add(Battery.of("Dense-" + i, String.valueOf(6000 + i), 1000));
+        }
+        for (int i = 0; i < 100; i++) {
+            batteries.add(Battery.of("Sparse-" + i, String.valueOf(9_000_000 + i * 1000), 1000));
+        }
+        batteryRepository.saveAll(batteries);
+        batteryRepository.flush();
+
+        List<Integer> lastPostcodes = batteryRepository.findRowBalancedSplitPoints(0, 9_999_999, 4);
+
+        assertThat(lastPostcodes).hasSize(4).isSorted().last().isEqualTo(9_099_000);
+        int from = 0;
+        for (int lastPostcode : lastPostcodes) {
+            long rows = batteryRepository.aggregateRollupInRange(from, lastPostcode).getBatteryCount();
+            // 404 rows / 4; a boundary can be off by at most one postcode's rows
+            assertThat(rows).isBetween(99L, 103L);
+            from = lastPostcode + 1;
+        }
+    }
+
+    private Map<String, Object> rollupRow(int postcode) {
+        return jdbcTemplate.queryForMap(
+                "SELECT * FROM postcode_capacity_rollup WHERE postcode_numeric = ?", postcode);
+    }
+}
@@ -1,28 +1,45 @@
 package com.tanmoy.vpp.service;
 
+import com.tanmoy.vpp.dto.response.BatterySearchPageResponseDto;
 import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import com.tanmoy.vpp.dto.response.BatterySearchSummaryDto;
+import com.tanmoy.vpp.event.BatteriesSavedEvent;
 import com.tanmoy.vpp.exception.InvalidRangeException;
+import com.tanmoy.vpp.index.BatteryCapacityIndex;
+import com.tanmoy.vpp.index.CapacityRangeStats;
 import com.tanmoy.vpp.model.Battery;
 import com.tanmoy.vpp.repository.BatteryRepository;
+import com.tanmoy.vpp.repository.NameCapacityConsumer;
+import com.tanmoy.vpp.repository.projection.BatteryCapacityStats;
+import com.tanmoy.vpp.repository.projection.BatteryNameKey;
 import com.tanmoy.vpp.service.impl.BatteryServiceImpl;
+import com.tanmoy.vpp.service.impl.PostcodeSubRange;
+import com.tanmoy.vpp.util.SearchCursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.TransactionSystemException;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.*;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +48,12 @@ class BatteryServiceImplTest {
     @Mock
     private BatteryRepository batteryRepository;
 
+    @Mock
+    private BatteryCapacityIndex capacityIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BatteryServiceImpl batteryService;
 
@@ -49,6 +72,23 @@ class BatteryServiceImplTest {
         assertEquals(2, captor.getValue().size());
     }
 
+    @Test
+    void shouldPublishSavedEventWithSavedBatteries() {
+
+        List<Battery> batteries = List.of(
+                Battery.of("Battery1", "6000", 1000),
+                Battery.of("Battery2", "6005", 2000)
+        );
+
+        batteryService.saveAll(batteries);
+
+        ArgumentCaptor<BatteriesSavedEvent> captor = ArgumentCaptor.forClass(BatteriesSavedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().getBatteries()).hasSize(2);
+        assertEquals(6000, captor.getValue().getMinPostcode());
+        assertEquals(6005, captor.getValue().getMaxPostcode());
+    }
+
     @Test
     void shouldHandleTransactionSystemExceptions() {
 
@@ -110,14 +150,7 @@ class BatteryServiceImplTest {
     @Test
     void shouldReturnFilteredAndSortedBatteriesInRange() {
 
-        Battery battery1 = Battery.of("Alpha", "6000", 1000);
-        Battery battery2 = Battery.of("Beta", "6001", 2000);
-        Battery battery3 = Battery.of("Gamma", "6002", 3000);
-
-        List<Battery> mockList = List.of(battery2, battery3, battery1);
-
-        when(batteryRepository.findInRangeWithOptionalCapacity(
-                6000, 6002, null, null)).thenReturn(mockList);
+        stubRows(6000, 6002, null, null, "Alpha", 1000, "Beta", 2000, "Gamma", 3000);
 
         BatterySearchResponseDto response = batteryService.getBatteriesByPostcodeRange(
                 6000, 6002, null, null);
@@ -130,14 +163,7 @@ class BatteryServiceImplTest {
     @Test
     void shouldApplyMinAndMaxCapacityFilter() {
 
-        Battery battery1 = Battery.of("Alpha", "6100", 500);
-        Battery battery2 = Battery.of("Beta", "6101", 1500);
-        Battery battery3 = Battery.of("Gamma", "6102", 2500);
-
-        List<Battery> mockList = List.of(battery2, battery3);
-
-        when(batteryRepository.findInRangeWithOptionalCapacity(
-                6100, 6102, 1000, 3000)).thenReturn(mockList);
+        stubRows(6100, 6102, 1000, 3000, "Beta", 1500, "Gamma", 2500);
 
         BatterySearchResponseDto response = batteryService.getBatteriesByPostcodeRange(
                 6100, 6102, 1000, 3000);
@@ -150,9 +176,6 @@ class BatteryServiceImplTest {
     @Test
     void shouldReturnZeroStatsForNoMatches() {
 
-        when(batteryRepository.findInRangeWithOptionalCapacity(
-                7000, 7001, null, null)).thenReturn(Collections.emptyList());
-
         BatterySearchResponseDto response = batteryService.getBatteriesByPostcodeRange(
                 7000, 7001, null, null);
 
@@ -164,13 +187,7 @@ class BatteryServiceImplTest {
     @Test
     void shouldHandleNullCapacityFilters() {
 
-        Battery battery1 = Battery.of("Alpha", "6000", 1000);
-        Battery battery2 = Battery.of("Beta", "6001", 2000);
-
-        List<Battery> mockList = List.of(battery1, battery2);
-
-        when(batteryRepository.findInRangeWithOptionalCapacity(
-                6000, 6001, null, null)).thenReturn(mockList);
+        stubRows(6000, 6001, null, null, "Alpha", 1000, "Beta", 2000);
 
         BatterySearchResponseDto response = batteryService.getBatteriesByPostcodeRange(
                 6000, 6001, null, null);
@@ -183,12 +200,7 @@ class BatteryServiceImplTest {
     @Test
     void shouldHandleBoundaryPostcodeValues() {
 
-        Battery battery = Battery.of("Boundary", "9999", 1000);
-
-        List<Battery> mockList = List.of(battery);
-
-        when(batteryRepository.findInRangeWithOptionalCapacity(
-                9999, 9999, null, null)).thenReturn(mockList);
+        stubRows(9999, 9999, null, null, "Boundary", 1000);
 
         BatterySearchResponseDto response = batteryService.getBatteriesByPostcodeRange(
                 9999, 9999, null, null);
@@ -201,12 +213,16 @@ class BatteryServiceImplTest {
     @Test
     void shouldHandleLargeResultSet() {
 
-        List<Battery> largeList = IntStream.range(0, 1000)
-                .mapToObj(i -> Battery.of("Battery-" + i, "6000", 1000))
+        List<String> largeList = IntStream.range(0, 1000)
+                .mapToObj(i -> "Battery-" + i)
+                .sorted()
                 .collect(Collectors.toList());
 
-        when(batteryRepository.findInRangeWithOptionalCapacity(
-                6000, 6000, null, null)).thenReturn(largeList);
+        doAnswer(invocation -> {
+            NameCapacityConsumer consumer = invocation.getArgument(4);
+            largeList.forEach(name -> consumer.accept(name, 1000));
+            return null;
+        }).when(batteryRepository).streamNamesInRangeOrderByName(eq(6000), eq(6000), isNull(), isNull(), any());
 
         long startTime = System.currentTimeMillis();
 
@@ -216,7 +232,7 @@ class BatteryServiceImplTest {
         long duration = System.currentTimeMillis() - startTime;
 
         assertThat(duration).isLessThan(1000);
-        assertThat(response.getBatteryNames()).hasSize(1000);
+        assertThat(response.getBatteryNames()).isEqualTo(largeList);
         assertThat(response.getTotalWattCapacity()).isEqualTo(1000000);
         assertThat(response.getAverageWattCapacity()).isEqualTo(1000.0);
     }
@@ -224,12 +240,7 @@ class BatteryServiceImplTest {
     @Test
     void shouldHandleZeroCapacityValues() {
 
-        Battery battery = Battery.of("Zero", "6000", 0);
-
-        List<Battery> mockList = List.of(battery);
-
-        when(batteryRepository.findInRangeWithOptionalCapacity(
-                6000, 6000, null, null)).thenReturn(mockList);
+        stubRows(6000, 6000, null, null, "Zero", 0);
 
         BatterySearchResponseDto response = batteryService.getBatteriesByPostcodeRange(
                 6000, 6000, null, null);
@@ -239,6 +250,129 @@ class BatteryServiceImplTest {
         assertThat(response.getAverageWattCapacity()).isEqualTo(0.0);
     }
 
+    @Test
+    void shouldNotLoadEntitiesWhenSearching() {
+
+        batteryService.getBatteriesByPostcodeRange(6000, 6002, null, null);
+
+        verify(batteryRepository, never()).findInRangeWithOptionalCapacity(anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    void shouldSearchInOnePassWithoutSeparateStatsOrNameQueries() {
+
+        when(capacityIndex.stats(6000, 6002, null, null))
+                .thenReturn(Optional.of(new CapacityRangeStats(2, 3000)));
+        stubRows(6000, 6002, null, null, "Alpha", 1000, "Beta", 2000);
+
+        BatterySearchResponseDto response = batteryService.getBatteriesByPostcodeRange(
+                6000, 6002, null, null);
+
+        assertThat(response.getBatteryNames()).containsExactly("Alpha", "Beta");
+        assertThat(response.getTotalWattCapacity()).isEqualTo(3000);
+        assertThat(response.getAverageWattCapacity()).isEqualTo(1500.0);
+        verify(batteryRepository, never()).aggregateCapacityInRange(anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    void shouldSearchWithoutRowCountQueryWhenIndexNotLoaded() {
+
+        stubRows(6000, 6002, null, null, "Alpha", 1000, "Beta", 2000, "Gamma", 3000);
+
+        BatterySearchResponseDto response = batteryService.getBatteriesByPostcodeRange(6000, 6002, null, null);
+
+        assertThat(response.getBatteryNames()).containsExactly("Alpha", "Beta", "Gamma");
+        verify(batteryRepository, never()).aggregateRollupInRange(anyInt(), anyInt());
+        verify(batteryRepository, never()).aggregateCapacityInRange(anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    void shouldSearchSubRangeSizedBySplitRowCount() {
+
+        stubRows(6000, 6002, null, null, "Alpha", 1000, "Beta", 2000);
+
+        BatterySearchResponseDto response = batteryService.getBatteriesByPostcodeRange(
+                6000, 6002, null, null, null, 2);
+
+        assertThat(response.getBatteryNames()).containsExactly("Alpha", "Beta");
+        assertThat(response.getTotalWattCapacity()).isEqualTo(3000);
+        verify(batteryRepository, never()).aggregateRollupInRange(anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldComputeCapacityDistributionInSamePass() {
+
+        stubRows(6000, 6002, null, null, "Alpha", 1000, "Beta", 2000, "Gamma", 3000, "Delta", 4000);
+
+        BatterySearchResponseDto response = batteryService.getBatteriesWithDistributionByPostcodeRange(
+                6000, 6002, null, null);
+
+        assertThat(response.getBatteryNames()).containsExactly("Alpha", "Beta", "Gamma", "Delta");
+        assertThat(response.getTotalWattCapacity()).isEqualTo(10000);
+        assertThat(response.getCapacityDistribution().getMinWattCapacity()).isEqualTo(1000);
+        assertThat(response.getCapacityDistribution().getMaxWattCapacity()).isEqualTo(4000);
+        assertThat(response.getCapacityDistribution().getBuckets()).hasSize(10);
+        verify(batteryRepository, times(1)).streamNamesInRangeOrderByName(
+                eq(6000), eq(6002), isNull(), isNull(), any());
+    }
+
+    @Test
+    void shouldOmitCapacityDistributionByDefault() {
+
+        stubRows(6000, 6002, null, null, "Alpha", 1000);
+
+        assertThat(batteryService.getBatteriesByPostcodeRange(6000, 6002, null, null)
+                .getCapacityDistribution()).isNull();
+    }
+
+    @Test
+    void shouldAnswerUnfilteredStatsFromRollup() {
+
+        when(batteryRepository.aggregateRollupInRange(6000, 6999)).thenReturn(stats(4, 10000));
+
+        BatterySearchSummaryDto response = batteryService.getBatteryStatsByPostcodeRange(
+                6000, 6999, null, null);
+
+        assertThat(response.getTotalBatteries()).isEqualTo(4);
+        assertThat(response.getTotalWattCapacity()).isEqualTo(10000);
+        assertThat(response.getAverageWattCapacity()).isEqualTo(2500.0);
+        verify(batteryRepository, never()).aggregateCapacityInRange(anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    void shouldFallBackToDetailedStatsWhenCapacityFiltered() {
+
+        when(batteryRepository.aggregateCapacityInRange(6000, 6999, 1000, null)).thenReturn(stats(2, 5000));
+
+        BatterySearchSummaryDto response = batteryService.getBatteryStatsByPostcodeRange(
+                6000, 6999, 1000, null);
+
+        assertThat(response.getTotalBatteries()).isEqualTo(2);
+        assertThat(response.getTotalWattCapacity()).isEqualTo(5000);
+        verify(batteryRepository, never()).aggregateRollupInRange(anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldSplitRangeAtRowBalancedRollupBoundaries() {
+
+        when(batteryRepository.aggregateRollupInRange(0, 9_999_999)).thenReturn(stats(3000, 3_000_000));
+        when(batteryRepository.findRowBalancedSplitPoints(0, 9_999_999, 3)).thenReturn(List.of(6049, 6199, 9_000_000));
+
+        List<PostcodeSubRange> subRanges = batteryService.splitByRows(0, 9_999_999, 1000, 4);
+
+        assertThat(subRanges).containsExactly(new PostcodeSubRange(0, 6049, 1000),
+                new PostcodeSubRange(6050, 6199, 1000), new PostcodeSubRange(6200, 9_999_999, 1000));
+    }
+
+    @Test
+    void shouldNotSplitRangeHoldingFewerRowsThanThreshold() {
+
+        when(batteryRepository.aggregateRollupInRange(0, 9_999_999)).thenReturn(stats(999, 999_000));
+
+        assertThat(batteryService.splitByRows(0, 9_999_999, 1000, 4)).containsExactly(new PostcodeSubRange(0, 9_999_999, 999));
+        verify(batteryRepository, never()).findRowBalancedSplitPoints(anyInt(), anyInt(), anyInt());
+    }
+
     @Test
     void shouldThrowInvalidRangeExceptionWhenStartGreaterThanEnd() {
         assertThrows(InvalidRangeException.class, () -> {
@@ -246,4 +380,124 @@ class BatteryServiceImplTest {
         });
     }
 
+    @Test
+    void shouldThrowInvalidRangeExceptionForNegativePostcode() {
+        assertThrows(InvalidRangeException.class, () -> {
+            batteryService.getBatteriesByPostcodeRange(-5, 20000, null, null);
+        });
+    }
+
+    @Test
+    void shouldReturnFirstPageWithCursorAndFullRangeStats() {
+
+        UUID alphaId = UUID.randomUUID();
+        UUID betaId = UUID.randomUUID();
+
+        when(batteryRepository.aggregateCapacityInRange(
+                6000, 6002, null, null)).thenReturn(stats(3, 6000));
+        when(batteryRepository.findFirstNamePage(6000, 6002, null, null, 3))
+                .thenReturn(List.of(nameKey("Alpha", alphaId), nameKey("Beta", betaId), nameKey("Gamma", UUID.randomUUID())));
+
+        BatterySearchPageResponseDto page = batteryService.getBatteryPageByPostcodeRange(
+                6000, 6002, null, null, 2, null);
+
+        assertThat(page.getBatteryNames()).containsExactly("Alpha", "Beta");
+        assertThat(page.getTotalBatteries()).isEqualTo(3);
+        assertThat(page.getTotalWattCapacity()).isEqualTo(6000);
+        assertThat(page.getAverageWattCapacity()).isEqualTo(2000.0);
+
+        SearchCursor cursor = SearchCursor.decode(page.getNextCursor());
+        assertEquals("Beta", cursor.getName());
+        assertEquals(betaId, cursor.getId());
+    }
+
+    @Test
+    void shouldContinueAfterCursorAndOmitCursorOnLastPage() {
+
+        UUID betaId = UUID.randomUUID();
+        String cursor = new SearchCursor("Beta", betaId).encode();
+
+        when(batteryRepository.aggregateCapacityInRange(
+                6000, 6002, null, null)).thenReturn(stats(3, 6000));
+        when(batteryRepository.findNamePageAfter(6000, 6002, null, null, "Beta", betaId, 3))
+                .thenReturn(List.of(nameKey("Gamma", UUID.randomUUID())));
+
+        BatterySearchPageResponseDto page = batteryService.getBatteryPageByPostcodeRange(
+                6000, 6002, null, null, 2, cursor);
+
+        assertThat(page.getBatteryNames()).containsExactly("Gamma");
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void shouldRejectOutOfBoundsPageSize() {
+        assertThrows(IllegalArgumentException.class, () ->
+                batteryService.getBatteryPageByPostcodeRange(6000, 6002, null, null, 0, null));
+        assertThrows(IllegalArgumentException.class, () ->
+                batteryService.getBatteryPageByPostcodeRange(6000, 6002, null, null, 1001, null));
+    }
+
+    @Test
+    void shouldStreamNamesAndSummariseInOnePass() {
+
+        doAnswer(invocation -> {
+            NameCapacityConsumer consumer = invocation.getArgument(4);
+            consumer.accept("Alpha", 1000);
+            consumer.accept("Beta", 2000);
+            return null;
+        }).when(batteryRepository).streamNamesInRangeOrderByName(eq(6000), eq(6002), isNull(), isNull(), any());
+
+        List<String> streamed = new ArrayList<>();
+        BatterySearchSummaryDto summary = batteryService.streamBatteriesByPostcodeRange(
+                6000, 6002, null, null, streamed::add);
+
+        assertThat(streamed).containsExactly("Alpha", "Beta");
+        assertThat(summary.getTotalBatteries()).isEqualTo(2);
+        assertThat(summary.getTotalWattCapacity()).isEqualTo(3000);
+        assertThat(summary.getAverageWattCapacity()).isEqualTo(1500.0);
+    }
+
+    private void stubRows(int start, int end, Integer min, Integer max, Object... nameCapacityPairs) {
+        doAnswer(invocation -> {
+            NameCapacityConsumer consumer = invocation.getArgument(4);
+            for (int i = 0; i < nameCapacityPairs.length; i += 2) {
+                consumer.accept((String) nameCapacityPairs[i], (Integer) nameCapacityPairs[i + 1]);
+            }
+            return null;
+        }).when(batteryRepository).streamNamesInRangeOrderByName(eq(start), eq(end), eq(min), eq(max), any());
+    }
+
+    private static BatteryNameKey nameKey(String name, UUID id) {
+        return new BatteryNameKey() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    private static BatteryCapacityStats stats(long count, long total) {
+        return new BatteryCapacityStats() {
+            @Override
+            public long getBatteryCount() {
+                return count;
+            }
+
+            @Override
+            public long getTotalCapacity() {
+                return total;
+            }
+
+            @Override
+            public double getAverageCapacity() {
+                return count == 0 ? 0.0 : (double) total / count;
+            }
+        };
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.tanmoy.vpp.service;
+
+import com.tanmoy.vpp.metrics.BatteryMetrics;
+import com.tanmoy.vpp.model.Battery;
+import com.tanmoy.vpp.service.impl.BatteryServiceImpl;
+import com.tanmoy.vpp.service.impl.GroupCommitBatteryWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class GroupCommitBatteryWriterTest {
+
+    private final BatteryServiceImpl batteryService = mock(BatteryServiceImpl.class);
+    private final List<Integer> committedGroupSizes = Collections.synchronizedList(new ArrayList<>());
+    private final ExecutorService callers = Executors.newFixedThreadPool(20);
+
+    private GroupCommitBatteryWriter writer;
+
+    private void startWriter(Duration maxDelay, int maxRows) {
+        writer = new GroupCommitBatteryWriter(batteryService, new BatteryMetrics(new SimpleMeterRegistry()),
+                true, maxDelay, maxRows, 1);
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        writer.stop();
+    }
+
+    @Test
+    void shouldMergeConcurrentCallersIntoFewerTransactions() throws Exception {
+        doAnswer(invocation -> {
+            List<Battery> batteries = invocation.getArgument(0);
+            committedGroupSizes.add(batteries.size());
+            // Stands in for the commit's fsync, during which later callers queue up
+            Thread.sleep(20);
+            return null;
+        }).when(batteryService).saveAll(anyList());
+        startWriter(Duration.ofMillis(50), 1000);
+
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int caller = i;
+            calls.add(callers.submit(() -> {
+                ready.await();
+                writer.write(List.of(battery("B" + caller)));
+                return null;
+            }));
+        }
+        ready.countDown();
+        for (Future<?> call : calls) {
+            call.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(committedGroupSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(20);
+        assertThat(committedGroupSizes.size()).isLessThan(20);
+    }
+
+    @Test
+    void shouldFailOnlyTheCallerWhoseBatteriesFail() throws Exception {
+        doAnswer(invocation -> {
+            List<Battery> batteries = invocation.getArgument(0);
+            if (batteries.stream().anyMatch(b -> b.getName().equals("Bad"))) {
+                throw new IllegalStateException("constraint violated");
+            }
+            return null;
+        }).when(batteryService).saveAll(anyList());
+        startWriter(Duration.ofMillis(50), 1000);
+
+        Future<?> good = callers.submit(() -> writer.write(List.of(battery("Good"))));
+        Future<?> bad = callers.submit(() -> writer.write(List.of(battery("Bad"))));
+
+        good.get(5, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> bad.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("constraint violated");
+    }
+
+    @Test
+    void shouldCommitLoneCallerWithoutWaitingForMaxDelay() {
+        startWriter(Duration.ofSeconds(30), 1000);
+
+        long startNanos = System.nanoTime();
+        writer.write(List.of(battery("Alone")));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startNanos)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldSaveDirectlyAfterStop() throws Exception {
+        startWriter(Duration.ofMillis(50), 1000);
+        writer.stop();
+
+        callers.submit(() -> writer.write(List.of(battery("Late")))).get(5, TimeUnit.SECONDS);
+
+        verify(batteryService).saveAll(argThat(batteries -> batteries.get(0).getName().equals("Late")));
+    }
+
+    private static Battery battery(String name) {
+        return Battery.of(name, "6000", 1000);
+    }
+}
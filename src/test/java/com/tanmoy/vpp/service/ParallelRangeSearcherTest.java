@@ -0,0 +1,152 @@
+package com.tanmoy.vpp.service;
+
+import com.tanmoy.vpp.dto.response.BatterySearchResponseDto;
+import com.tanmoy.vpp.dto.response.CapacityBucketDto;
+import com.tanmoy.vpp.dto.response.CapacityDistributionDto;
+import com.tanmoy.vpp.exception.InvalidRangeException;
+import com.tanmoy.vpp.index.CapacityHistogram;
+import com.tanmoy.vpp.service.impl.BatteryServiceImpl;
+import com.tanmoy.vpp.service.impl.ParallelRangeSearcher;
+import com.tanmoy.vpp.service.impl.PostcodeSubRange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ParallelRangeSearcherTest {
+
+    private final BatteryServiceImpl batteryService = mock(BatteryServiceImpl.class);
+    private final ParallelRangeSearcher searcher = new ParallelRangeSearcher(batteryService, 1000, 4, 4);
+
+    @BeforeEach
+    void setUp() {
+        when(batteryService.splitByRows(0, 3999, 1000, 4)).thenReturn(List.of(
+                new PostcodeSubRange(0, 999, 1000), new PostcodeSubRange(1000, 1999, 1000),
+                new PostcodeSubRange(2000, 2999, 1000), new PostcodeSubRange(3000, 3999, 1000)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        searcher.stop();
+    }
+
+    @Test
+    void shouldSearchSmallRangeInOneCall() {
+        BatterySearchResponseDto single = new BatterySearchResponseDto(List.of("Alpha"), 1000L, 1000.0);
+        when(batteryService.splitByRows(6000, 6999, 1000, 4)).thenReturn(List.of(new PostcodeSubRange(6000, 6999, 800)));
+        when(batteryService.getBatteriesByPostcodeRange(6000, 6999, null, null, null, 800)).thenReturn(single);
+
+        assertThat(searcher.search(6000, 6999, null, null)).isSameAs(single);
+    }
+
+    @Test
+    void shouldSplitLargeRangeAndMergeNamesInOrder() {
+        when(batteryService.getBatteriesByPostcodeRange(0, 999, null, null, null, 1000))
+                .thenReturn(new BatterySearchResponseDto(List.of("Bravo", "Foxtrot"), 3000L, 1500.0));
+        when(batteryService.getBatteriesByPostcodeRange(1000, 1999, null, null, null, 1000))
+                .thenReturn(new BatterySearchResponseDto(List.of(), 0L, 0.0));
+        when(batteryService.getBatteriesByPostcodeRange(2000, 2999, null, null, null, 1000))
+                .thenReturn(new BatterySearchResponseDto(List.of("Alpha", "Echo"), 7000L, 3500.0));
+        when(batteryService.getBatteriesByPostcodeRange(3000, 3999, null, null, null, 1000))
+                .thenReturn(new BatterySearchResponseDto(List.of("Charlie"), 2000L, 2000.0));
+
+        BatterySearchResponseDto response = searcher.search(0, 3999, null, null);
+
+        assertThat(response.getBatteryNames()).containsExactly("Alpha", "Bravo", "Charlie", "Echo", "Foxtrot");
+        assertThat(response.getTotalWattCapacity()).isEqualTo(12000);
+        assertThat(response.getAverageWattCapacity()).isEqualTo(2400.0);
+    }
+
+    @Test
+    void shouldMergeSubRangeHistogramsIntoOneDistribution() {
+        when(batteryService.getBatteriesByPostcodeRange(anyInt(), anyInt(), isNull(), isNull(),
+                any(CapacityHistogram.class), anyLong())).thenAnswer(call -> {
+            int start = call.getArgument(0);
+            CapacityHistogram histogram = call.getArgument(4);
+            histogram.record(start + 100);
+            return new BatterySearchResponseDto(List.of("Battery-" + start), start + 100L, start + 100.0);
+        });
+
+        BatterySearchResponseDto response = searcher.searchWithDistribution(0, 3999, null, null);
+
+        CapacityDistributionDto distribution = response.getCapacityDistribution();
+        assertThat(response.getBatteryNames()).hasSize(4);
+        assertThat(distribution.getMinWattCapacity()).isEqualTo(100);
+        assertThat(distribution.getMaxWattCapacity()).isEqualTo(3100);
+        assertThat(distribution.getBuckets()).extracting(CapacityBucketDto::getBatteryCount).containsOnly(0L, 1L);
+        assertThat(distribution.getBuckets().stream().mapToLong(CapacityBucketDto::getBatteryCount).sum()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldNotComputeDistributionUnlessRequested() {
+        when(batteryService.getBatteriesByPostcodeRange(anyInt(), anyInt(), isNull(), isNull(), isNull(), anyLong()))
+                .thenReturn(new BatterySearchResponseDto(List.of(), 0L, 0.0));
+
+        assertThat(searcher.search(0, 3999, null, null).getCapacityDistribution()).isNull();
+    }
+
+    @Test
+    void shouldSearchTheRowBalancedSubRanges() {
+        // Dense 4-digit postcodes get narrow sub-ranges, the sparse tail one wide one
+        when(batteryService.splitByRows(0, 9_999_999, 1000, 4)).thenReturn(List.of(
+                new PostcodeSubRange(0, 6049, 1000), new PostcodeSubRange(6050, 6199, 1000),
+                new PostcodeSubRange(6200, 9_999_999, 1000)));
+        when(batteryService.getBatteriesByPostcodeRange(anyInt(), anyInt(), isNull(), isNull(), isNull(), anyLong()))
+                .thenReturn(new BatterySearchResponseDto(List.of(), 0L, 0.0));
+
+        searcher.search(0, 9_999_999, null, null);
+
+        verify(batteryService).getBatteriesByPostcodeRange(0, 6049, null, null, null, 1000);
+        verify(batteryService).getBatteriesByPostcodeRange(6050, 6199, null, null, null, 1000);
+        verify(batteryService).getBatteriesByPostcodeRange(6200, 9_999_999, null, null, null, 1000);
+    }
+
+    @Test
+    void shouldSearchSubRangesConcurrently() throws Exception {
+        CountDownLatch allStarted = new CountDownLatch(4);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(batteryService.getBatteriesByPostcodeRange(anyInt(), anyInt(), isNull(), isNull(), isNull(), anyLong())).thenAnswer(call -> {
+            threads.add(Thread.currentThread().getName());
+            allStarted.countDown();
+            assertThat(allStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            return new BatterySearchResponseDto(List.of(), 0L, 0.0);
+        });
+
+        searcher.search(0, 3999, null, null);
+
+        assertThat(threads).hasSize(4);
+    }
+
+    @Test
+    void shouldPropagateSubRangeFailure() {
+        when(batteryService.getBatteriesByPostcodeRange(anyInt(), anyInt(), isNull(), isNull(), isNull(), anyLong()))
+                .thenReturn(new BatterySearchResponseDto(List.of(), 0L, 0.0));
+        when(batteryService.getBatteriesByPostcodeRange(2000, 2999, null, null, null, 1000))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThrows(QueryTimeoutException.class, () -> searcher.search(0, 3999, null, null));
+    }
+
+    @Test
+    void shouldRejectInvalidRangeBeforeSearching() {
+        assertThrows(InvalidRangeException.class, () -> searcher.search(5000, 0, null, null));
+        verifyNoInteractions(batteryService);
+    }
+}
@@ -0,0 +1,154 @@
+package com.tanmoy.vpp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tanmoy.vpp.exception.InvalidBatteryRowException;
+import com.tanmoy.vpp.ingest.BatteryJsonStreamReader;
+import com.tanmoy.vpp.ingest.BatteryRowValidator;
+import com.tanmoy.vpp.ingest.BatteryUploadReader;
+import com.tanmoy.vpp.service.impl.ShardedBatteryImportService;
+import com.tanmoy.vpp.shard.PostcodeShard;
+import com.tanmoy.vpp.shard.ShardRouter;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ShardedBatteryImportServiceTest {
+
+    private FakeShard low;
+    private FakeShard high;
+    private ShardedBatteryImportService importService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        low = new FakeShard("low", 0, 4999);
+        high = new FakeShard("high", 5000, Integer.MAX_VALUE);
+        ObjectMapper objectMapper = new ObjectMapper();
+        BatteryUploadReader uploadReader = new BatteryUploadReader(
+                new BatteryRowValidator(Validation.buildDefaultValidatorFactory().getValidator()),
+                new BatteryJsonStreamReader(objectMapper), objectMapper);
+        importService = new ShardedBatteryImportService(
+                new ShardRouter(List.of(low.shard, high.shard)), uploadReader);
+    }
+
+    @Test
+    void shouldCopyEachRowIntoItsOwningShardAndCommitBoth() throws Exception {
+        long rows = importService.importCsv(csv("""
+                name,postcode,capacity
+                Alpha,1000,1000
+                Delta,6000,4000
+                Beta,2000,2000
+                """));
+
+        assertThat(rows).isEqualTo(3);
+        assertThat(low.copied()).contains("\"Alpha\",1000,1000,1000", "\"Beta\",2000,2000,2000")
+                .doesNotContain("Delta");
+        assertThat(high.copied()).contains("\"Delta\",6000,4000,6000").doesNotContain("Alpha");
+        verify(low.connection).commit();
+        verify(high.connection).commit();
+        verify(low.connection).close();
+        verify(high.connection).close();
+    }
+
+    @Test
+    void shouldOnlyOpenShardsThatReceiveRows() throws Exception {
+        importService.importNdjson(csv("""
+                {"name":"Alpha","postcode":"1000","capacity":1000}
+                """));
+
+        verify(low.connection).commit();
+        verify(high.dataSource, never()).getConnection();
+    }
+
+    @Test
+    void shouldRollBackEveryShardWhenARowIsInvalid() throws Exception {
+        assertThatThrownBy(() -> importService.importCsv(csv("""
+                Alpha,1000,1000
+                Delta,6000,4000
+                Broken,7000,-1
+                """))).isInstanceOf(InvalidBatteryRowException.class);
+
+        verify(low.copyIn).cancelCopy();
+        verify(high.copyIn).cancelCopy();
+        verify(low.connection, never()).commit();
+        verify(high.connection, never()).commit();
+        verify(low.connection).rollback();
+        verify(high.connection).rollback();
+    }
+
+    @Test
+    void shouldTranslateDataErrorsRaisedByCopy() throws Exception {
+        doThrow(new SQLException("invalid byte sequence for encoding \"UTF8\": 0x00", "22021"))
+                .when(low.copyIn).endCopy();
+
+        assertThatThrownBy(() -> importService.importCsv(csv("""
+                Alpha,1000,1000
+                Delta,6000,4000
+                """))).isInstanceOf(DataIntegrityViolationException.class);
+
+        verify(low.connection, never()).commit();
+        verify(high.connection, never()).commit();
+        verify(low.connection).rollback();
+        verify(high.connection).rollback();
+    }
+
+    private static ByteArrayInputStream csv(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class FakeShard {
+
+        final DataSource dataSource = mock(DataSource.class);
+        final Connection connection = mock(Connection.class);
+        final CopyIn copyIn = mock(CopyIn.class);
+        final StringBuilder copied = new StringBuilder();
+        final PostcodeShard shard;
+        boolean active = true;
+
+        FakeShard(String name, int fromPostcode, int lastPostcode) throws Exception {
+            PGConnection pgConnection = mock(PGConnection.class);
+            CopyManager copyManager = mock(CopyManager.class);
+            when(dataSource.getConnection()).thenReturn(connection);
+            when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+            when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+            when(copyManager.copyIn(anyString())).thenReturn(copyIn);
+            doAnswer(invocation -> {
+                byte[] bytes = invocation.getArgument(0);
+                copied.append(new String(bytes, 0, (Integer) invocation.getArgument(2), StandardCharsets.UTF_8));
+                return null;
+            }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+            when(copyIn.endCopy()).thenAnswer(invocation -> {
+                active = false;
+                return copied.chars().filter(c -> c == '\n').count();
+            });
+            when(copyIn.isActive()).thenAnswer(invocation -> active);
+            shard = new PostcodeShard(name, fromPostcode, lastPostcode, dataSource);
+        }
+
+        String copied() {
+            return copied.toString();
+        }
+    }
+}
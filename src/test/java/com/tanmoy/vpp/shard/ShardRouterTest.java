@@ -0,0 +1,68 @@
+package com.tanmoy.vpp.shard;
+
+import com.tanmoy.vpp.model.Battery;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class ShardRouterTest {
+
+    private final PostcodeShard low = shard("low", 0, 4999);
+    private final PostcodeShard mid = shard("mid", 5000, 7999);
+    private final PostcodeShard high = shard("high", 8000, Integer.MAX_VALUE);
+    private final ShardRouter router = new ShardRouter(List.of(high, low, mid));
+
+    @Test
+    void shouldRouteEachPostcodeToOwningShard() {
+        assertThat(router.shardFor(0)).isSameAs(low);
+        assertThat(router.shardFor(4999)).isSameAs(low);
+        assertThat(router.shardFor(5000)).isSameAs(mid);
+        assertThat(router.shardFor(123456)).isSameAs(high);
+    }
+
+    @Test
+    void shouldOnlyTargetShardsOverlappingRange() {
+        assertThat(router.overlapping(5100, 5200)).containsExactly(mid);
+        assertThat(router.overlapping(4000, 8000)).containsExactly(low, mid, high);
+        assertThat(router.overlapping(7999, 8000)).containsExactly(mid, high);
+    }
+
+    @Test
+    void shouldPartitionBatchByShard() {
+        Battery alpha = Battery.of("Alpha", "1000", 100);
+        Battery beta = Battery.of("Beta", "6000", 200);
+        Battery gamma = Battery.of("Gamma", "2000", 300);
+
+        Map<PostcodeShard, List<Battery>> byShard = router.partition(List.of(alpha, beta, gamma));
+
+        assertThat(byShard).containsOnlyKeys(low, mid);
+        assertThat(byShard.get(low)).containsExactly(alpha, gamma);
+        assertThat(byShard.get(mid)).containsExactly(beta);
+    }
+
+    @Test
+    void shouldRejectPostcodeOutsideAllShards() {
+        ShardRouter partial = new ShardRouter(List.of(shard("mid", 5000, 7999)));
+
+        assertThrows(IllegalArgumentException.class, () -> partial.shardFor(4999));
+        assertThrows(IllegalArgumentException.class, () -> partial.shardFor(8000));
+    }
+
+    @Test
+    void shouldRejectGapsAndOverlapsBetweenShards() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShardRouter(List.of(shard("a", 0, 4999), shard("b", 5001, 9999))));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShardRouter(List.of(shard("a", 0, 5000), shard("b", 5000, 9999))));
+    }
+
+    private static PostcodeShard shard(String name, int from, int last) {
+        return new PostcodeShard(name, from, last, mock(DataSource.class));
+    }
+}
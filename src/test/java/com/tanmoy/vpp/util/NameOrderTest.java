@@ -0,0 +1,59 @@
+package com.tanmoy.vpp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NameOrderTest {
+
+    private static final List<String> BMP_NAMES = List.of(
+            "Alpha", "alpha", "ALPHA", "Alpha 2", "Alpha 10", "Alpha-2", "Alpha_2", "Alpha.2",
+            "10", "9", "", " Alpha", "\u00c5lesund", "\u00c9mile", "Eve", "na\u00efve", "nai",
+            "\u00df", "ss", "\u65e5\u672c", "\u4e2d\u56fd", "\uff21lpha", "\ue000");
+
+    @Test
+    void shouldAgreeWithStringCompareToWithinBasicMultilingualPlane() {
+        for (String a : BMP_NAMES) {
+            for (String b : BMP_NAMES) {
+                assertThat(Integer.signum(NameOrder.CODE_POINT.compare(a, b)))
+                        .as("%s vs %s", a, b)
+                        .isEqualTo(Integer.signum(a.compareTo(b)));
+            }
+        }
+    }
+
+    @Test
+    void shouldSortSupplementaryCharactersByCodePoint() {
+        String emoji = "Battery \ud83d\udd0b";
+        String fullwidth = "Battery \uff22";
+
+        assertThat(emoji.compareTo(fullwidth)).isNegative();
+        assertThat(NameOrder.CODE_POINT.compare(emoji, fullwidth)).isPositive();
+        assertThat(NameOrder.CODE_POINT.compare(emoji, "Battery \ud83d\udd0c")).isNegative();
+        assertThat(NameOrder.CODE_POINT.compare(emoji, "Battery")).isPositive();
+    }
+
+    @Test
+    void shouldMatchCodePointSequenceComparison() {
+        List<String> names = new ArrayList<>(BMP_NAMES);
+        names.addAll(List.of("\ud83d\udd0b", "a\ud83d\udd0b", "a\uffff", "a\ud800\udc00", "\ud83d\ude00"));
+
+        Comparator<String> byCodePoints = (a, b) -> {
+            int[] x = a.codePoints().toArray();
+            int[] y = b.codePoints().toArray();
+            return Arrays.compare(x, y);
+        };
+
+        List<String> expected = new ArrayList<>(names);
+        expected.sort(byCodePoints);
+        List<String> actual = new ArrayList<>(names);
+        actual.sort(NameOrder.CODE_POINT);
+
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+}
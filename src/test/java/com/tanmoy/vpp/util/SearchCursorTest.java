@@ -0,0 +1,27 @@
+package com.tanmoy.vpp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchCursorTest {
+
+    @Test
+    void shouldRoundTripNameAndId() {
+        UUID id = UUID.randomUUID();
+
+        SearchCursor decoded = SearchCursor.decode(new SearchCursor("Alpha: North/\u00dcnit", id).encode());
+
+        assertThat(decoded.getName()).isEqualTo("Alpha: North/\u00dcnit");
+        assertThat(decoded.getId()).isEqualTo(id);
+    }
+
+    @Test
+    void shouldRejectTamperedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("%%%"));
+    }
+}
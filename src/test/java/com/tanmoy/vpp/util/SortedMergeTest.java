@@ -0,0 +1,57 @@
+package com.tanmoy.vpp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SortedMergeTest {
+
+    @Test
+    void shouldMergeSortedListsIntoOneSortedList() {
+        List<String> merged = SortedMerge.merge(List.of(
+                List.of("Alpha", "Delta", "Golf"),
+                List.of(),
+                List.of("Bravo", "Charlie", "Hotel"),
+                List.of("Echo", "Foxtrot")), Comparator.<String>naturalOrder());
+
+        assertThat(merged).containsExactly("Alpha", "Bravo", "Charlie", "Delta", "Echo", "Foxtrot", "Golf", "Hotel");
+    }
+
+    @Test
+    void shouldKeepDuplicatesInSourceOrder() {
+        record Named(String name, int source) {}
+
+        List<Named> merged = SortedMerge.merge(List.of(
+                List.of(new Named("Alpha", 0), new Named("Beta", 0)),
+                List.of(new Named("Alpha", 1))), Comparator.comparing(Named::name));
+
+        assertThat(merged).extracting(Named::source).containsExactly(0, 1, 0);
+    }
+
+    @Test
+    void shouldPullFromSourcesOnlyAsFarAsRead() {
+        Iterator<Integer> infinite = new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                return next += 2;
+            }
+        };
+
+        Iterator<Integer> merged = SortedMerge.mergeIterators(List.of(infinite, List.of(1, 3).iterator()),
+                Comparator.<Integer>naturalOrder());
+
+        assertThat(List.of(merged.next(), merged.next(), merged.next(), merged.next(), merged.next()))
+                .containsExactly(1, 2, 3, 4, 6);
+    }
+}
@@ -0,0 +1,40 @@
+package com.tanmoy.vpp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void shouldGenerateVersion7Uuid() {
+        UUID uuid = UuidV7Generator.generate();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEmbedCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7Generator.generate();
+        long after = System.currentTimeMillis();
+
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+
+        assertThat(timestamp).isBetween(before, after);
+    }
+
+    @Test
+    void shouldGenerateUniqueValues() {
+        Set<UUID> uuids = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            uuids.add(UuidV7Generator.generate());
+        }
+        assertThat(uuids).hasSize(100_000);
+    }
+}